@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.benchmarks;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+import com.aerospike.client.async.MpscRing;
+
+/**
+ * Compare selector command handoff through a ConcurrentLinkedQueue with the MPSC ring.
+ * Producer threads submit commands while a single consumer thread drains them, as the
+ * selector thread does before each select.  Ring submissions that find the ring full fall 
+ * back to an overflow queue, as SelectorManager does.
+ * <p>
+ * Usage: SubmitBenchmark [producers] [commands per producer] [ring size]
+ */
+public final class SubmitBenchmark {
+	
+	public static void main(String[] args) throws InterruptedException {
+		int producers = (args.length > 0)? Integer.parseInt(args[0]) : 4;
+		int commands = (args.length > 1)? Integer.parseInt(args[1]) : 2000000;
+		int ringSize = (args.length > 2)? Integer.parseInt(args[2]) : 1024;
+		
+		// Warm up both implementations before measuring.
+		runQueue(producers, commands / 4);
+		runRing(producers, commands / 4, ringSize);
+		
+		long queueNanos = runQueue(producers, commands);
+		long ringNanos = runRing(producers, commands, ringSize);
+		long total = (long)producers * commands;
+		
+		System.out.println("Producers:  " + producers);
+		System.out.println("Commands:   " + total);
+		System.out.println("Ring size:  " + ringSize);
+		System.out.println("Queue:      " + (queueNanos / total) + " ns/command " + (total * 1000000000L / queueNanos) + " commands/sec");
+		System.out.println("Ring:       " + (ringNanos / total) + " ns/command " + (total * 1000000000L / ringNanos) + " commands/sec");
+	}
+	
+	private static long runQueue(int producers, final int commands) throws InterruptedException {
+		final ConcurrentLinkedQueue<Object> queue = new ConcurrentLinkedQueue<Object>();
+		final Object command = new Object();
+		
+		Runnable producer = new Runnable() {
+			public void run() {
+				for (int i = 0; i < commands; i++) {
+					queue.add(command);
+				}
+			}
+		};
+		
+		Drain drain = new Drain() {
+			public int drain() {
+				int count = 0;
+				
+				while (queue.poll() != null) {
+					count++;
+				}
+				return count;
+			}
+		};
+		return run(producers, commands, producer, drain);
+	}
+	
+	private static long runRing(int producers, final int commands, int ringSize) throws InterruptedException {
+		final MpscRing<Object> ring = new MpscRing<Object>(ringSize);
+		final ConcurrentLinkedQueue<Object> overflow = new ConcurrentLinkedQueue<Object>();
+		final Object command = new Object();
+		
+		Runnable producer = new Runnable() {
+			public void run() {
+				for (int i = 0; i < commands; i++) {
+					if (! ring.offer(command)) {
+						overflow.add(command);
+					}
+				}
+			}
+		};
+		
+		Drain drain = new Drain() {
+			public int drain() {
+				int count = 0;
+				
+				while (ring.poll() != null || overflow.poll() != null) {
+					count++;
+				}
+				return count;
+			}
+		};
+		return run(producers, commands, producer, drain);
+	}
+	
+	private static long run(int producers, int commands, Runnable producer, Drain drain) throws InterruptedException {
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[producers];
+		
+		for (int i = 0; i < producers; i++) {
+			final Runnable task = producer;
+			threads[i] = new Thread(new Runnable() {
+				public void run() {
+					try {
+						start.await();
+					}
+					catch (InterruptedException ie) {
+						return;
+					}
+					task.run();
+				}
+			});
+			threads[i].start();
+		}
+		
+		long total = (long)producers * commands;
+		long received = 0;
+		long begin = System.nanoTime();
+		start.countDown();
+		
+		// Consume on this thread until every command has been received.
+		while (received < total) {
+			received += drain.drain();
+		}
+		long elapsed = System.nanoTime() - begin;
+		
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		return elapsed;
+	}
+	
+	private static interface Drain {
+		public int drain();
+	}
+}
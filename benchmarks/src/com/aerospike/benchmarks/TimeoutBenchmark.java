@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.benchmarks;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+import com.aerospike.client.async.TimeoutWheel;
+
+/**
+ * Compare the selector timeout scan over an ArrayDeque with the hashed timing wheel.
+ * Simulates a selector loop with a fixed number of in-flight commands.  Each loop iteration
+ * advances a simulated clock by one millisecond, completes a share of the commands and 
+ * replaces them with new ones, so the number of pending commands stays constant.
+ * <p>
+ * Usage: TimeoutBenchmark [commands] [iterations]
+ */
+public final class TimeoutBenchmark {
+	private static final int TIMEOUT = 1000;
+	private static final int COMPLETIONS = 500;
+
+	public static void main(String[] args) {
+		int commands = (args.length > 0)? Integer.parseInt(args[0]) : 50000;
+		int iterations = (args.length > 1)? Integer.parseInt(args[1]) : 2000;
+		
+		// Warm up both implementations before measuring.
+		runDeque(commands, iterations / 4);
+		runWheel(commands, iterations / 4);
+		
+		long dequeNanos = runDeque(commands, iterations);
+		long wheelNanos = runWheel(commands, iterations);
+		
+		System.out.println("Commands:   " + commands);
+		System.out.println("Iterations: " + iterations);
+		System.out.println("ArrayDeque: " + (dequeNanos / iterations) + " ns/iteration");
+		System.out.println("Wheel:      " + (wheelNanos / iterations) + " ns/iteration");
+	}
+	
+	private static long runDeque(int commands, int iterations) {
+		Random random = new Random(1);
+		SimCommand[] active = new SimCommand[commands];
+		ArrayDeque<SimCommand> queue = new ArrayDeque<SimCommand>(commands);
+		long now = 1000000;
+		
+		for (int i = 0; i < commands; i++) {
+			active[i] = new SimCommand(now + random.nextInt(TIMEOUT) + 1);
+			queue.addLast(active[i]);
+		}
+		
+		long begin = System.nanoTime();
+		long clockSink = 0;
+		
+		for (int iter = 0; iter < iterations; iter++) {
+			now++;
+			
+			// Walk entire queue and read clock for every command as the old selector loop did.
+			SimCommand last = queue.peekLast();
+			SimCommand command;
+			
+			while ((command = queue.pollFirst()) != null) {
+				clockSink += System.currentTimeMillis();
+				
+				if (command.expire(now)) {
+					queue.addLast(command);
+				}
+				
+				if (command == last) {
+					break;
+				}
+			}
+			
+			for (int i = 0; i < COMPLETIONS; i++) {
+				int index = random.nextInt(commands);
+				active[index].done = true;
+				active[index] = new SimCommand(now + TIMEOUT);
+				queue.addLast(active[index]);
+			}
+		}
+		long elapsed = System.nanoTime() - begin;
+		
+		if (clockSink == 42) {
+			System.out.println();
+		}
+		return elapsed;
+	}
+	
+	private static long runWheel(int commands, int iterations) {
+		Random random = new Random(1);
+		SimCommand[] active = new SimCommand[commands];
+		long now = 1000000;
+		TimeoutWheel<SimCommand> wheel = new TimeoutWheel<SimCommand>(512, 5, now);
+		
+		for (int i = 0; i < commands; i++) {
+			active[i] = new SimCommand(now + random.nextInt(TIMEOUT) + 1);
+			wheel.add(active[i]);
+		}
+		
+		long begin = System.nanoTime();
+		
+		for (int iter = 0; iter < iterations; iter++) {
+			now++;
+			
+			// One clock read per loop iteration.
+			wheel.advance(now);
+			
+			for (int i = 0; i < COMPLETIONS; i++) {
+				int index = random.nextInt(commands);
+				active[index].done = true;
+				active[index] = new SimCommand(now + TIMEOUT);
+				wheel.add(active[index]);
+			}
+		}
+		return System.nanoTime() - begin;
+	}
+	
+	private static final class SimCommand implements TimeoutWheel.Timer {
+		private final long deadline;
+		private boolean done;
+		
+		public SimCommand(long deadline) {
+			this.deadline = deadline;
+		}
+
+		public long getDeadline() {
+			return deadline;
+		}
+
+		public boolean expire(long current) {
+			if (done) {
+				return false;
+			}
+			
+			if (current > deadline) {
+				// Timed out.
+				done = true;
+				return false;
+			}
+			return true;
+		}
+	}
+}
@@ -21,32 +21,42 @@
  ******************************************************************************/
 package com.aerospike.client;
 
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 
 import com.aerospike.client.Info.NameValueParser;
 import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.cluster.Connection;
 import com.aerospike.client.cluster.Node;
 import com.aerospike.client.command.BatchExecutor;
+import com.aerospike.client.command.BatchReadExecutor;
+import com.aerospike.client.command.BatchWriteExecutor;
 import com.aerospike.client.command.Command;
 import com.aerospike.client.command.DeleteCommand;
 import com.aerospike.client.command.ExecuteCommand;
 import com.aerospike.client.command.ExistsCommand;
+import com.aerospike.client.command.NumberListCommand;
 import com.aerospike.client.command.OperateCommand;
+import com.aerospike.client.command.ReadCoalescer;
 import com.aerospike.client.command.ReadCommand;
 import com.aerospike.client.command.ReadHeaderCommand;
 import com.aerospike.client.command.ScanCommand;
+import com.aerospike.client.command.ScanDispatcher;
 import com.aerospike.client.command.ScanExecutor;
+import com.aerospike.client.command.StreamReadCommand;
 import com.aerospike.client.command.TouchCommand;
+import com.aerospike.client.command.VisitCommand;
 import com.aerospike.client.command.WriteCommand;
 import com.aerospike.client.large.LargeList;
 import com.aerospike.client.large.LargeMap;
 import com.aerospike.client.large.LargeSet;
 import com.aerospike.client.large.LargeStack;
+import com.aerospike.client.listener.RecordPublisher;
 import com.aerospike.client.policy.ClientPolicy;
 import com.aerospike.client.policy.Policy;
 import com.aerospike.client.policy.QueryPolicy;
@@ -54,6 +64,7 @@ import com.aerospike.client.policy.ScanPolicy;
 import com.aerospike.client.policy.WritePolicy;
 import com.aerospike.client.query.IndexType;
 import com.aerospike.client.query.QueryAggregateExecutor;
+import com.aerospike.client.query.QueryPublisher;
 import com.aerospike.client.query.QueryRecordExecutor;
 import com.aerospike.client.query.RecordSet;
 import com.aerospike.client.query.ResultSet;
@@ -63,6 +74,7 @@ import com.aerospike.client.task.ExecuteTask;
 import com.aerospike.client.task.IndexTask;
 import com.aerospike.client.task.RegisterTask;
 import com.aerospike.client.util.Environment;
+import com.aerospike.client.util.UnpackVisitor;
 import com.aerospike.client.util.Util;
 
 /**
@@ -87,6 +99,7 @@ public class AerospikeClient {
 	//-------------------------------------------------------
 	
 	protected Cluster cluster;
+	private ReadCoalescer readCoalescer;
 	
 	//-------------------------------------------------------
 	// Constructors
@@ -162,6 +175,7 @@ public class AerospikeClient {
 		}
 		cluster = new Cluster(policy, hosts);
 		cluster.initTendThread();
+		initReadCoalescer(policy);
 		
 		if (policy.failIfNotConnected && ! cluster.isConnected()) {
 			throw new AerospikeException.Connection("Failed to connect to host(s): " + Arrays.toString(hosts));
@@ -178,6 +192,16 @@ public class AerospikeClient {
 	protected AerospikeClient() {
 	}
 	
+	/**
+	 * Enable read coalescing when requested by the client policy.
+	 * Must be called after the cluster is created.
+	 */
+	protected final void initReadCoalescer(ClientPolicy policy) {
+		if (policy.readCoalesceWindow > 0) {
+			readCoalescer = new ReadCoalescer(cluster, policy.readCoalesceWindow, policy.readCoalesceMaxKeys);
+		}
+	}
+	
 	/**
 	 * Compatibility layer host initialization. Do not use.
 	 */
@@ -257,6 +281,46 @@ public class AerospikeClient {
 		command.execute();
 	}
 
+	/**
+	 * Write record bin(s) and return the result code instead of throwing an exception when
+	 * the server rejects the write or the client times out.  Expected outcomes such as 
+	 * {@link ResultCode#GENERATION_ERROR} and {@link ResultCode#KEY_EXISTS_ERROR} are returned 
+	 * without the cost of creating an exception.
+	 * 
+	 * @param policy				write configuration parameters, pass in null for defaults
+	 * @param key					unique record identifier
+	 * @param bins					array of bin name/value pairs
+	 * @return						{@link ResultCode#OK} on success, otherwise the error result code
+	 * @throws AerospikeException	if a client error other than timeout occurs
+	 */
+	public final int tryPut(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+		WriteCommand command = new WriteCommand(cluster, policy, key, bins, Operation.Type.WRITE);
+		return command.executeResultCode();
+	}
+
+	/**
+	 * Write bins to multiple keys.  bins[i] is written to keys[i].  The server has no 
+	 * multi-record write, so records are grouped by node and each node is written in parallel.
+	 * Writes to the same node also overlap on multiple connections.  By default, each node's 
+	 * keys are divided over {@link com.aerospike.client.command.BatchWriteExecutor#DEFAULT_NODE_LANES} 
+	 * parallel lanes.  Set {@link com.aerospike.client.policy.Policy#maxConcurrentBatchCommands} 
+	 * to change the lanes per node, or {@link com.aerospike.client.policy.Policy#maxBatchKeys} 
+	 * to split each node's keys into fixed size groups instead.
+	 * <p>
+	 * A failed write does not stop the remaining writes.  Each key's result code is returned.
+	 * 
+	 * @param policy				write configuration parameters, pass in null for defaults
+	 * @param keys					array of unique record identifiers
+	 * @param bins					array of bin name/value pairs for each key
+	 * @return						{@link ResultCode#OK} or the error result code for each key
+	 * @throws AerospikeException	if array lengths differ or an unexpected client error occurs
+	 */
+	public final int[] put(WritePolicy policy, Key[] keys, Bin[][] bins) throws AerospikeException {
+		int[] resultCodes = new int[keys.length];
+		new BatchWriteExecutor(cluster, policy, keys, bins, resultCodes);
+		return resultCodes;
+	}
+
 	//-------------------------------------------------------
 	// String Operations
 	//-------------------------------------------------------
@@ -332,6 +396,21 @@ public class AerospikeClient {
 		return command.existed();
 	}
 
+	/**
+	 * Delete record for specified key and return the result code instead of throwing an 
+	 * exception when the server rejects the delete or the client times out.
+	 * 
+	 * @param policy				delete configuration parameters, pass in null for defaults
+	 * @param key					unique record identifier
+	 * @return						{@link ResultCode#OK} if record was deleted, {@link ResultCode#KEY_NOT_FOUND_ERROR}
+	 * 								if record did not exist, otherwise the error result code
+	 * @throws AerospikeException	if a client error other than timeout occurs
+	 */
+	public final int tryDelete(WritePolicy policy, Key key) throws AerospikeException {
+		DeleteCommand command = new DeleteCommand(cluster, policy, key);
+		return command.executeResultCode();
+	}
+
 	//-------------------------------------------------------
 	// Touch Operations
 	//-------------------------------------------------------
@@ -391,6 +470,8 @@ public class AerospikeClient {
 	/**
 	 * Read entire record for specified key.
 	 * The policy can be used to specify timeouts.
+	 * If {@link ClientPolicy#readCoalesceWindow} is set, concurrent calls are combined into
+	 * batch commands.
 	 * 
 	 * @param policy				generic configuration parameters, pass in null for defaults
 	 * @param key					unique record identifier
@@ -398,6 +479,9 @@ public class AerospikeClient {
 	 * @throws AerospikeException	if read fails
 	 */
 	public final Record get(Policy policy, Key key) throws AerospikeException {
+		if (readCoalescer != null) {
+			return readCoalescer.get(policy, key);
+		}
 		ReadCommand command = new ReadCommand(cluster, policy, key, null);
 		command.execute();
 		return command.getRecord();
@@ -419,6 +503,26 @@ public class AerospikeClient {
 		return command.getRecord();
 	}
 
+	/**
+	 * Read record header and bins for specified key and return the result code instead of 
+	 * throwing an exception when the server returns an error or the client times out.
+	 * If binNames is empty, all bins are read.
+	 * 
+	 * @param policy				generic configuration parameters, pass in null for defaults
+	 * @param key					unique record identifier
+	 * @param binNames				optional bins to retrieve
+	 * @return						record and result code, result code is {@link ResultCode#KEY_NOT_FOUND_ERROR} if not found
+	 * @throws AerospikeException	if a client error other than timeout occurs
+	 */
+	public final RecordResult tryGet(Policy policy, Key key, String... binNames) throws AerospikeException {	
+		if (binNames != null && binNames.length == 0) {
+			binNames = null;
+		}
+		ReadCommand command = new ReadCommand(cluster, policy, key, binNames);
+		int resultCode = command.executeResultCode();
+		return new RecordResult(command.getRecord(), resultCode);
+	}
+
 	/**
 	 * Read record generation and expiration only for specified key.  Bins are not read.
 	 * The policy can be used to specify timeouts.
@@ -434,6 +538,101 @@ public class AerospikeClient {
 		return command.getRecord();
 	}
 
+	/**
+	 * Read a single bin for specified key and write the bin's raw particle bytes directly 
+	 * to the output stream.  The bin value is copied from the socket in fixed size chunks, 
+	 * so large blob bins can be read without holding the entire value in memory.
+	 * <p>
+	 * Bin data is not retried once any bytes have been written to the output stream.
+	 * The policy can be used to specify timeouts.
+	 * 
+	 * @param policy				generic configuration parameters, pass in null for defaults
+	 * @param key					unique record identifier
+	 * @param binName				bin to stream
+	 * @param out					destination of bin particle bytes
+	 * @return						if found, return record header (bins are not returned).  If not found, return null.
+	 * @throws AerospikeException	if read fails
+	 */
+	public final Record streamBin(Policy policy, Key key, String binName, OutputStream out) throws AerospikeException {
+		StreamReadCommand command = new StreamReadCommand(cluster, policy, key, binName, out);
+		command.execute();
+		return command.getRecord();
+	}
+
+	/**
+	 * Read a single bin for specified key and write the bin's raw particle bytes directly 
+	 * to a blocking channel.  The bin value is copied from the socket in fixed size chunks, 
+	 * so large blob bins can be read without holding the entire value in memory.
+	 * <p>
+	 * Bin data is not retried once any bytes have been written to the channel.
+	 * The policy can be used to specify timeouts.
+	 * 
+	 * @param policy				generic configuration parameters, pass in null for defaults
+	 * @param key					unique record identifier
+	 * @param binName				bin to stream
+	 * @param channel				destination of bin particle bytes, must be in blocking mode
+	 * @return						if found, return record header (bins are not returned).  If not found, return null.
+	 * @throws AerospikeException	if read fails
+	 */
+	public final Record streamBin(Policy policy, Key key, String binName, WritableByteChannel channel) throws AerospikeException {
+		return streamBin(policy, key, binName, Channels.newOutputStream(channel));
+	}
+
+	/**
+	 * Read a single bin for specified key and decode its value through a visitor.
+	 * List and map values are decoded element by element directly from the receive buffer, 
+	 * so large collection bins can be processed without creating an object tree.
+	 * Integer, string and blob values are reported with a single visitor call.
+	 * The visitor is not called if the bin does not exist.
+	 * The policy can be used to specify timeouts.
+	 * 
+	 * @param policy				generic configuration parameters, pass in null for defaults
+	 * @param key					unique record identifier
+	 * @param binName				bin to decode
+	 * @param visitor				receives decoded values
+	 * @return						if found, return record header (bins are not returned).  If not found, return null.
+	 * @throws AerospikeException	if read fails
+	 */
+	public final Record visitBin(Policy policy, Key key, String binName, UnpackVisitor visitor) throws AerospikeException {
+		VisitCommand command = new VisitCommand(cluster, policy, key, binName, visitor);
+		command.execute();
+		return command.getRecord();
+	}
+
+	/**
+	 * Read a single list bin of integers for specified key directly into a primitive array.
+	 * No boxed element or list objects are created.
+	 * The policy can be used to specify timeouts.
+	 * 
+	 * @param policy				generic configuration parameters, pass in null for defaults
+	 * @param key					unique record identifier
+	 * @param binName				list bin to read
+	 * @return						list elements, or null if the record or bin was not found
+	 * @throws AerospikeException	if read fails or the bin is not a list of integers
+	 */
+	public final long[] getLongList(Policy policy, Key key, String binName) throws AerospikeException {
+		NumberListCommand command = new NumberListCommand(cluster, policy, key, binName, false);
+		command.execute();
+		return command.getLongs();
+	}
+
+	/**
+	 * Read a single list bin of numbers for specified key directly into a primitive array.
+	 * Integer elements are converted to double.  No boxed element or list objects are created.
+	 * The policy can be used to specify timeouts.
+	 * 
+	 * @param policy				generic configuration parameters, pass in null for defaults
+	 * @param key					unique record identifier
+	 * @param binName				list bin to read
+	 * @return						list elements, or null if the record or bin was not found
+	 * @throws AerospikeException	if read fails or the bin is not a list of numbers
+	 */
+	public final double[] getDoubleList(Policy policy, Key key, String binName) throws AerospikeException {
+		NumberListCommand command = new NumberListCommand(cluster, policy, key, binName, true);
+		command.execute();
+		return command.getDoubles();
+	}
+
 	//-------------------------------------------------------
 	// Batch Read Operations
 	//-------------------------------------------------------
@@ -475,6 +674,61 @@ public class AerospikeClient {
 		return records;
 	}
 
+	/**
+	 * Read multiple records for specified keys in batch calls.
+	 * Records are passed to the callback as each batch command completes, so results from
+	 * fast nodes are not held back by slow nodes.  If a key is not found, the callback record
+	 * will be null.  Set {@link Policy#maxBatchKeys} to split large batches into smaller commands.
+	 * <p>
+	 * This method blocks until all records have been passed to the callback.
+	 * 
+	 * @param policy				generic configuration parameters, pass in null for defaults
+	 * @param keys					array of unique record identifiers
+	 * @param callback				read callback method - called with record data
+	 * @throws AerospikeException	if read fails
+	 */
+	public final void get(Policy policy, Key[] keys, BatchCallback callback) throws AerospikeException {
+		Record[] records = new Record[keys.length];
+		new BatchExecutor(cluster, policy, keys, null, records, null, Command.INFO1_READ | Command.INFO1_GET_ALL, callback);
+	}
+
+	/**
+	 * Read multiple record headers and bins for specified keys in batch calls.
+	 * Records are passed to the callback as each batch command completes, so results from
+	 * fast nodes are not held back by slow nodes.  If a key is not found, the callback record
+	 * will be null.  Set {@link Policy#maxBatchKeys} to split large batches into smaller commands.
+	 * <p>
+	 * This method blocks until all records have been passed to the callback.
+	 * 
+	 * @param policy				generic configuration parameters, pass in null for defaults
+	 * @param keys					array of unique record identifiers
+	 * @param callback				read callback method - called with record data
+	 * @param binNames				array of bins to retrieve
+	 * @throws AerospikeException	if read fails
+	 */
+	public final void get(Policy policy, Key[] keys, BatchCallback callback, String... binNames) 
+		throws AerospikeException {
+		Record[] records = new Record[keys.length];
+		HashSet<String> names = binNamesToHashSet(binNames);
+		new BatchExecutor(cluster, policy, keys, null, records, names, Command.INFO1_READ, callback);
+	}
+
+	/**
+	 * Read multiple records for specified batch keys in one batch call.
+	 * This method allows different bin names to be requested for each key in the batch.
+	 * The returned records are located in the same list.
+	 * If a key is not found, the record field will be null.
+	 * The policy can be used to specify timeouts.
+	 * 
+	 * @param policy				generic configuration parameters, pass in null for defaults
+	 * @param records				list of unique record identifiers and the bins to retrieve.
+	 * 								The returned records are located in the same list.
+	 * @throws AerospikeException	if read fails
+	 */
+	public final void get(Policy policy, List<BatchRead> records) throws AerospikeException {
+		new BatchReadExecutor(cluster, policy, records);
+	}
+
 	/**
 	 * Read multiple record header data for specified keys in one batch call.
 	 * The returned records are in positional order with the original key array order.
@@ -517,6 +771,46 @@ public class AerospikeClient {
 		return command.getRecord();
 	}
 
+	/**
+	 * Perform multiple read/write operations on a single key in one batch call and return 
+	 * the result code instead of throwing an exception when the server rejects the command 
+	 * or the client times out.
+	 * 
+	 * @param policy				write configuration parameters, pass in null for defaults
+	 * @param key					unique record identifier
+	 * @param operations			database operations to perform
+	 * @return						record (if there is a read in the operations list) and result code
+	 * @throws AerospikeException	if a client error other than timeout occurs
+	 */
+	public final RecordResult tryOperate(WritePolicy policy, Key key, Operation... operations) 
+		throws AerospikeException {		
+		OperateCommand command = new OperateCommand(cluster, policy, key, operations);
+		int resultCode = command.executeResultCode();
+		return new RecordResult(command.getRecord(), resultCode);
+	}
+
+	/**
+	 * Perform read/write operations on multiple keys.  operations[i] is applied to keys[i].
+	 * Records are grouped by node and each node is processed in parallel.  Commands to the 
+	 * same node also overlap on multiple connections, divided over lanes the same way as 
+	 * {@link #put(WritePolicy, Key[], Bin[][])}.
+	 * <p>
+	 * A failed command does not stop the remaining commands.  Each key's record and result 
+	 * code is returned.
+	 * 
+	 * @param policy				write configuration parameters, pass in null for defaults
+	 * @param keys					array of unique record identifiers
+	 * @param operations			database operations to perform for each key
+	 * @return						record (if there is a read in the operations list) and result code for each key
+	 * @throws AerospikeException	if array lengths differ or an unexpected client error occurs
+	 */
+	public final RecordResult[] operate(WritePolicy policy, Key[] keys, Operation[][] operations) 
+		throws AerospikeException {
+		RecordResult[] results = new RecordResult[keys.length];
+		new BatchWriteExecutor(cluster, policy, keys, operations, results);
+		return results;
+	}
+
 	//-------------------------------------------------------
 	// Scan Operations
 	//-------------------------------------------------------
@@ -550,13 +844,35 @@ public class AerospikeClient {
 			throw new AerospikeException(ResultCode.SERVER_NOT_AVAILABLE, "Scan failed because cluster is empty.");
 		}
 
+		if (policy.callbackThreads <= 0) {
+			scanNodes(policy, nodes, namespace, setName, callback, null, binNames);
+			return;
+		}
+		
+		ScanDispatcher dispatcher = new ScanDispatcher(policy, callback, nodes.length);
+		
+		try {
+			scanNodes(policy, nodes, namespace, setName, callback, dispatcher, binNames);
+		}
+		catch (AerospikeException ae) {
+			// Wait for callback threads without masking the node failure.
+			throw dispatcher.close(ae);
+		}
+		// Wait for callback threads and throw callback exception, if any.
+		dispatcher.close();
+	}
+	
+	private void scanNodes(ScanPolicy policy, Node[] nodes, String namespace, String setName, ScanCallback callback, ScanDispatcher dispatcher, String[] binNames) 
+		throws AerospikeException {
 		if (policy.concurrentNodes) {
-			ScanExecutor executor = new ScanExecutor(cluster, nodes, policy, namespace, setName, callback, binNames);
+			ScanExecutor executor = new ScanExecutor(cluster, nodes, policy, namespace, setName, callback, dispatcher, binNames);
 			executor.scanParallel();
 		}
 		else {
-			for (Node node : nodes) {
-				scanNode(policy, node, namespace, setName, callback, binNames);
+			for (int i = 0; i < nodes.length; i++) {
+				ScanCallback nodeCallback = (dispatcher != null)? dispatcher.getCallback(i) : callback;
+				ScanCommand command = new ScanCommand(nodes[i], policy, namespace, setName, nodeCallback, binNames);
+				command.execute();
 			}
 		}
 	}
@@ -606,8 +922,22 @@ public class AerospikeClient {
 		// Retry policy must be one-shot for scans.
 		policy.maxRetries = 0;
 
-		ScanCommand command = new ScanCommand(node, policy, namespace, setName, callback, binNames);
-		command.execute();
+		if (policy.callbackThreads <= 0) {
+			ScanCommand command = new ScanCommand(node, policy, namespace, setName, callback, binNames);
+			command.execute();
+			return;
+		}
+		
+		ScanDispatcher dispatcher = new ScanDispatcher(policy, callback, 1);
+		
+		try {
+			ScanCommand command = new ScanCommand(node, policy, namespace, setName, dispatcher.getCallback(0), binNames);
+			command.execute();
+		}
+		catch (AerospikeException ae) {
+			throw dispatcher.close(ae);
+		}
+		dispatcher.close();
 	}
 
 	//-------------------------------------------------------------------
@@ -781,32 +1111,34 @@ public class AerospikeClient {
 		throws AerospikeException {
 		ExecuteCommand command = new ExecuteCommand(cluster, policy, key, packageName, functionName, args);
 		command.execute();
-		
-		Record record = command.getRecord();
-		
-		if (record == null || record.bins == null) {
-			return null;
-		}
-		
-		Map<String,Object> map = record.bins;
+		return ExecuteCommand.getResult(command.getRecord());
+	}
 
-		Object obj = map.get("SUCCESS");
-		
-		if (obj != null) {
-			return obj;
-		}
-		
-		// User defined functions don't have to return a value.
-		if (map.containsKey("SUCCESS")) {
-			return null;
-		}
-		
-		obj = map.get("FAILURE");
-		
-		if (obj != null) {
-			throw new AerospikeException(obj.toString());
-		}
-		throw new AerospikeException("Invalid UDF return value");
+	/**
+	 * Execute user defined function on server for each key and return results.
+	 * The function operates on one record per command.  Keys are grouped by node and each 
+	 * node is processed in parallel.  Commands to the same node overlap on multiple connections, 
+	 * divided over lanes the same way as {@link #put(WritePolicy, Key[], Bin[][])}.
+	 * Arguments are packed once and shared by all commands.
+	 * <p>
+	 * A failed command does not stop the remaining commands.  Each key's return value 
+	 * or error is returned.
+	 * <p>
+	 * This method is only supported by Aerospike 3 servers.
+	 * 
+	 * @param policy				generic configuration parameters, pass in null for defaults
+	 * @param keys					array of unique record identifiers
+	 * @param packageName			server package name where user defined function resides
+	 * @param functionName			user defined function
+	 * @param args					arguments passed in to user defined function
+	 * @return						return value or error of user defined function for each key
+	 * @throws AerospikeException	if arguments can not be packed or an unexpected client error occurs
+	 */
+	public final ExecuteResult[] execute(Policy policy, Key[] keys, String packageName, String functionName, Value... args) 
+		throws AerospikeException {
+		ExecuteResult[] results = new ExecuteResult[keys.length];
+		new BatchWriteExecutor(cluster, policy, keys, packageName, functionName, args, results);
+		return results;
 	}
 	
 	//----------------------------------------------------------
@@ -868,6 +1200,25 @@ public class AerospikeClient {
 		return executor.getRecordSet();
 	}
 	
+	/**
+	 * Create publisher that executes the query when a subscriber subscribes and sends records 
+	 * only as fast as the subscriber requests them.  When the subscriber falls behind, the 
+	 * policy's <code>recordQueueSize</code> fills up and node threads stop reading from their 
+	 * sockets until records are requested again.
+	 * <p>
+	 * This method is only supported by Aerospike 3 servers.
+	 * 
+	 * @param policy				generic configuration parameters, pass in null for defaults
+	 * @param statement				database query command
+	 * @return						record publisher
+	 */
+	public final RecordPublisher queryPublisher(QueryPolicy policy, Statement statement) {
+		if (policy == null) {
+			policy = new QueryPolicy();
+		}
+		return new QueryPublisher(cluster, policy, statement);
+	}
+	
 	/**
 	 * Execute query, apply statement's aggregation function, and return result iterator. The query 
 	 * executor puts results on a queue in separate threads.  The calling thread concurrently pops 
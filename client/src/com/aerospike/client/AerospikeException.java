@@ -91,8 +91,7 @@ public class AerospikeException extends Exception {
 	 * Should connection be put back into pool.
 	 */
 	public final boolean keepConnection() {
-		return (resultCode >= ResultCode.KEY_NOT_FOUND_ERROR && resultCode <= ResultCode.BIN_EXISTS_ERROR) || 
-			   (resultCode == ResultCode.KEY_BUSY);
+		return ResultCode.keepConnection(resultCode);
 	}
 	
 	/**
@@ -136,6 +135,22 @@ public class AerospikeException extends Exception {
 		}
 	}
 
+	/**
+	 * Exception thrown when the calling thread is interrupted while a command is in progress.
+	 * The thread's interrupt status remains set.
+	 */
+	public static final class Cancelled extends AerospikeException {
+		private static final long serialVersionUID = 1L;
+		
+		public Cancelled() {
+			super(ResultCode.COMMAND_CANCELLED);
+		}
+		
+		public Cancelled(Exception e) {
+			super(ResultCode.COMMAND_CANCELLED, e);
+		}
+	}
+
 	/**
 	 * Exception thrown when Java serialization error occurs.
 	 */
@@ -184,6 +199,28 @@ public class AerospikeException extends Exception {
 		}
 	}
 
+	/**
+	 * Exception thrown when a user defined function failed on the server and returned 
+	 * a failure message.
+	 */
+	public static final class UdfError extends AerospikeException {
+		private static final long serialVersionUID = 1L;
+		
+		private final String udfMessage;
+
+		public UdfError(int resultCode, String message) {
+			super(resultCode, message);
+			this.udfMessage = message;
+		}
+		
+		/**
+		 * Return failure message without the result code prefix.
+		 */
+		public String getUdfMessage() {
+			return udfMessage;
+		}
+	}
+
 	/**
 	 * Exception thrown when scan was terminated prematurely.
 	 */
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client;
+
+/**
+ * An object implementing this interface is passed in batch <code>get()</code> calls, so the caller 
+ * can be notified with results as each batch command completes instead of waiting for the entire
+ * batch.
+ */
+public interface BatchCallback {
+	/**
+	 * This method will be called for each requested key once the batch command containing that
+	 * key completes.  If any exception is thrown, the remaining batch commands will be terminated 
+	 * and the exception will be propagated back through the initiating batch call.
+	 * <p>
+	 * Multiple threads will likely be calling batchCallback in parallel.  Therefore, your batchCallback
+	 * implementation should be thread safe.
+	 * 
+	 * @param key					unique record identifier
+	 * @param record				container for bins and record meta-data, null if key was not found
+	 * @throws AerospikeException	if error occurs or batch should be terminated.
+	 */
+	public void batchCallback(Key key, Record record) throws AerospikeException;
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client;
+
+/**
+ * Key and bin names used in batch read commands where the bins to read differ per key.
+ * The record is filled in when the batch completes.
+ */
+public final class BatchRead {
+	/**
+	 * Key.
+	 */
+	public final Key key;
+	
+	/**
+	 * Bins to retrieve for this key.  Null if all bins or only the record header is read.
+	 */
+	public final String[] binNames;
+	
+	/**
+	 * If true, ignore binNames and read all bins.
+	 * If false and binNames is null, only the record header is read.
+	 */
+	public final boolean readAllBins;
+	
+	/**
+	 * Record result after batch command has completed.  Will be null if record was not found.
+	 */
+	public Record record;
+	
+	/**
+	 * Initialize batch key and bins to retrieve.
+	 * 
+	 * @param key					record identifier
+	 * @param binNames				bins to retrieve, null or empty to read only the record header
+	 */
+	public BatchRead(Key key, String[] binNames) {
+		this.key = key;
+		this.binNames = (binNames != null && binNames.length > 0)? binNames : null;
+		this.readAllBins = false;
+	}
+	
+	/**
+	 * Initialize batch key and readAllBins indicator.
+	 * 
+	 * @param key					record identifier
+	 * @param readAllBins			if true, read all bins.  If false, only read the record header.
+	 */
+	public BatchRead(Key key, boolean readAllBins) {
+		this.key = key;
+		this.binNames = null;
+		this.readAllBins = readAllBins;
+	}
+}
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client;
+
+/**
+ * User defined function return value and result code returned by multi-key execute.
+ */
+public final class ExecuteResult {
+	/**
+	 * Value returned by the user defined function.  Null if the result code is not 
+	 * {@link ResultCode#OK} or the function did not return a value.
+	 */
+	public final Object result;
+	
+	/**
+	 * Command result code.  See {@link ResultCode}.  When the function itself failed, this is 
+	 * the code reported with the function's failure message, or {@link ResultCode#UDF_BAD_RESPONSE}.
+	 */
+	public final int resultCode;
+	
+	/**
+	 * Failure message returned by the user defined function.  Null unless the function failed.
+	 */
+	public final String message;
+
+	/**
+	 * Initialize execute result.
+	 */
+	public ExecuteResult(Object result, int resultCode, String message) {
+		this.result = result;
+		this.resultCode = resultCode;
+		this.message = message;
+	}
+	
+	/**
+	 * Return string representation of execute result.
+	 */
+	@Override
+	public String toString() {
+		return "(resultCode:" + resultCode + "),(result:" + ((message != null)? message : result) + ")";
+	}
+}
@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client;
+
+/**
+ * Record and result code returned by operations that report errors 
+ * without throwing exceptions.
+ */
+public final class RecordResult {
+	/**
+	 * Record returned by the server.  Null if the result code is not 
+	 * {@link ResultCode#OK} or the operation did not read the record.
+	 */
+	public final Record record;
+	
+	/**
+	 * Operation result code.  See {@link ResultCode}.
+	 */
+	public final int resultCode;
+
+	/**
+	 * Initialize record result.
+	 */
+	public RecordResult(Record record, int resultCode) {
+		this.record = record;
+		this.resultCode = resultCode;
+	}
+	
+	/**
+	 * Return string representation of record result.
+	 */
+	@Override
+	public String toString() {
+		return "(resultCode:" + resultCode + "),(record:" + record + ")";
+	}
+}
@@ -26,6 +26,21 @@ package com.aerospike.client;
  * side file proto.h.
  */
 public final class ResultCode {
+	/**
+	 * Client error without a more specific result code.
+	 */
+	public static final int CLIENT_ERROR = -9;
+
+	/**
+	 * Command was cancelled by thread interrupt.
+	 */
+	public static final int COMMAND_CANCELLED = -8;
+
+	/**
+	 * Node's retry budget has been exhausted.  Command was not retried.
+	 */
+	public static final int RETRY_BUDGET_EXCEEDED = -7;
+
 	/**
 	 * Asynchronous max concurrent database commands have been exceeded and therefore rejected.
 	 */
@@ -199,11 +214,28 @@ public final class ResultCode {
 	 */
 	public static final int QUERY_GENERIC = 213;
 		
+	/**
+	 * Should connection be put back into pool after the given server result code.
+	 */
+	public static boolean keepConnection(int resultCode) {
+		return (resultCode >= KEY_NOT_FOUND_ERROR && resultCode <= BIN_EXISTS_ERROR) || 
+			   (resultCode == KEY_BUSY);
+	}
+
 	/**
 	 * Return result code as a string.
 	 */
 	public static String getResultString(int resultCode) {
 		switch (resultCode) {
+		case CLIENT_ERROR:
+			return "Client error";
+			
+		case COMMAND_CANCELLED:
+			return "Command cancelled";
+			
+		case RETRY_BUDGET_EXCEEDED:
+			return "Retry budget exceeded";
+			
 		case COMMAND_REJECTED:
 			return "Command rejected";
 		
@@ -0,0 +1,266 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.async;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.aerospike.client.AerospikeException;
+
+/**
+ * Additive increase, multiplicative decrease limit on concurrent asynchronous commands 
+ * sent to a server node.  The limit grows by one command per limit's worth of responses 
+ * that arrive within the latency tolerance.  It shrinks by the backoff ratio when a response 
+ * is slower than the tolerance allows or a command times out, at most once per baseline latency. 
+ * The baseline is the lowest observed latency, which drifts slowly toward recent samples so 
+ * sustained latency changes are eventually accepted as normal.
+ * <p>
+ * The limit is stored in fixed point with 20 fractional bits to avoid floating point 
+ * arithmetic and locking on the response path.
+ */
+public final class AdaptiveLimiter {
+	/**
+	 * Command completed and its latency should be sampled.
+	 */
+	public static final int SUCCESS = 0;
+	
+	/**
+	 * Command timed out or failed on the network.  Treated as congestion.
+	 */
+	public static final int DROPPED = 1;
+	
+	/**
+	 * Command finished without a useful latency sample.
+	 */
+	public static final int IGNORED = 2;
+	
+	private static final int SHIFT = 20;
+	private static final long ONE = 1L << SHIFT;
+	private static final int DRIFT_SHIFT = 12;
+	
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicLong limit;
+	private final AtomicLong lastDecrease = new AtomicLong();
+	private final long minLimit;
+	private final long maxLimit;
+	private final double tolerance;
+	private final double backoff;
+	private volatile long baseline;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition released = lock.newCondition();
+	private volatile int waiters;
+	
+	public AdaptiveLimiter(int minLimit, int maxLimit, double tolerance, double backoff) {
+		if (minLimit < 1) {
+			minLimit = 1;
+		}
+		
+		if (maxLimit < minLimit) {
+			maxLimit = minLimit;
+		}
+		this.minLimit = (long)minLimit << SHIFT;
+		this.maxLimit = (long)maxLimit << SHIFT;
+		this.tolerance = tolerance;
+		this.backoff = backoff;
+		this.limit = new AtomicLong(this.maxLimit);
+	}
+	
+	/**
+	 * Reserve a command slot if the current limit has not been reached.
+	 */
+	public boolean tryAcquire() {
+		int max = getLimit();
+		
+		while (true) {
+			int current = inFlight.get();
+			
+			if (current >= max) {
+				return false;
+			}
+			
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+	
+	/**
+	 * Reserve a command slot regardless of the current limit.
+	 */
+	public void forceAcquire() {
+		inFlight.incrementAndGet();
+	}
+	
+	/**
+	 * Wait for a command slot.  A deadline of zero waits indefinitely.  
+	 * Must not be called from a transport event loop thread.
+	 */
+	public void acquire(long deadline) throws AerospikeException {
+		if (tryAcquire()) {
+			return;
+		}
+		
+		lock.lock();
+		
+		try {
+			waiters++;
+			
+			while (! tryAcquire()) {
+				if (deadline > 0) {
+					long wait = deadline - System.currentTimeMillis();
+					
+					if (wait <= 0) {
+						throw new AerospikeException.Timeout();
+					}
+					released.await(wait, TimeUnit.MILLISECONDS);
+				}
+				else {
+					released.await();
+				}
+			}
+		}
+		catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new AerospikeException.Cancelled(ie);
+		}
+		finally {
+			waiters--;
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Free command slot and adjust limit according to the command's outcome.
+	 * 
+	 * @param outcome			SUCCESS, DROPPED or IGNORED
+	 * @param latency			command latency in nanoseconds, used on SUCCESS only
+	 */
+	public void release(int outcome, long latency) {
+		inFlight.decrementAndGet();
+		
+		switch (outcome) {
+		case SUCCESS:
+			if (sample(latency)) {
+				increase();
+			}
+			else {
+				decrease();
+			}
+			break;
+			
+		case DROPPED:
+			decrease();
+			break;
+		}
+		
+		if (waiters > 0) {
+			lock.lock();
+			
+			try {
+				released.signal();
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+	}
+	
+	/**
+	 * Return current maximum concurrent commands.
+	 */
+	public int getLimit() {
+		return (int)(limit.get() >> SHIFT);
+	}
+	
+	/**
+	 * Return current number of commands in flight.
+	 */
+	public int getInFlight() {
+		return inFlight.get();
+	}
+	
+	/**
+	 * Record latency sample.  Return true if it is within tolerance of the baseline.
+	 * Concurrent updates may lose a sample, which is harmless for a moving estimate.
+	 */
+	private boolean sample(long latency) {
+		long base = baseline;
+		
+		if (base == 0 || latency < base) {
+			baseline = latency;
+			return true;
+		}
+		baseline = base + ((latency - base) >> DRIFT_SHIFT);
+		return latency <= base * tolerance;
+	}
+	
+	private void increase() {
+		while (true) {
+			long current = limit.get();
+			
+			if (current >= maxLimit) {
+				return;
+			}
+			
+			// Add one command per full window of successful responses.
+			long next = current + Math.max((ONE << SHIFT) / current, 1);
+			
+			if (next > maxLimit) {
+				next = maxLimit;
+			}
+			
+			if (limit.compareAndSet(current, next)) {
+				return;
+			}
+		}
+	}
+	
+	private void decrease() {
+		// A burst of slow responses is one congestion signal.  Back off once per baseline latency.
+		long now = System.nanoTime();
+		long last = lastDecrease.get();
+		
+		if (last != 0 && now - last < baseline) {
+			return;
+		}
+		
+		if (! lastDecrease.compareAndSet(last, now)) {
+			return;
+		}
+		
+		while (true) {
+			long current = limit.get();
+			long next = (long)(current * backoff);
+			
+			if (next < minLimit) {
+				next = minLimit;
+			}
+			
+			if (next >= current || limit.compareAndSet(current, next)) {
+				return;
+			}
+		}
+	}
+}
@@ -27,14 +27,15 @@ import com.aerospike.client.AerospikeException;
 import com.aerospike.client.Key;
 import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.command.BatchNode;
+import com.aerospike.client.policy.Policy;
 
 public abstract class AsyncBatchExecutor extends AsyncMultiExecutor {
 	protected final Key[] keys;
 	protected final List<BatchNode> batchNodes;
 
-	public AsyncBatchExecutor(Cluster cluster, Key[] keys) throws AerospikeException {
+	public AsyncBatchExecutor(Cluster cluster, Policy policy, Key[] keys) throws AerospikeException {
 		this.keys = keys;	
-		this.batchNodes = BatchNode.generateList(cluster, keys);
+		this.batchNodes = BatchNode.generateList(cluster, keys, (policy != null)? policy.maxBatchKeys : 0);
 		
 		// Count number of asynchronous commands needed.
 		int size = 0;		
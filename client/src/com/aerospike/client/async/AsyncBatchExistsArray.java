@@ -21,20 +21,14 @@
  ******************************************************************************/
 package com.aerospike.client.async;
 
-import java.util.HashMap;
 
 import com.aerospike.client.AerospikeException;
-import com.aerospike.client.Key;
-import com.aerospike.client.Log;
-import com.aerospike.client.command.BatchItem;
 import com.aerospike.client.command.BatchNode;
-import com.aerospike.client.command.Buffer;
 import com.aerospike.client.policy.Policy;
 
 public final class AsyncBatchExistsArray extends AsyncMultiCommand {
 	private final BatchNode.BatchNamespace batchNamespace;
 	private final Policy policy;
-	private final HashMap<Key,BatchItem> keyMap;
 	private final boolean[] existsArray;
 	
 	public AsyncBatchExistsArray(
@@ -43,13 +37,11 @@ public final class AsyncBatchExistsArray extends AsyncMultiCommand {
 		AsyncNode node,
 		BatchNode.BatchNamespace batchNamespace,
 		Policy policy,
-		HashMap<Key,BatchItem> keyMap,
 		boolean[] existsArray
 	) {
 		super(parent, cluster, node, false);
 		this.batchNamespace = batchNamespace;
 		this.policy = policy;
-		this.keyMap = keyMap;
 		this.existsArray = existsArray;
 	}
 		
@@ -64,21 +56,15 @@ public final class AsyncBatchExistsArray extends AsyncMultiCommand {
 	}
 
 	@Override
-	protected void parseRow(Key key) throws AerospikeException {		
+	protected void parseRow() throws AerospikeException {		
 		if (opCount > 0) {
 			throw new AerospikeException.Parse("Received bins that were not requested!");
 		}			
 
-		BatchItem item = keyMap.get(key);
+		int index = parseBatchIndex(batchNamespace);
 		
-		if (item != null) {
-			int index = item.getIndex();
+		if (index >= 0) {
 			existsArray[index] = resultCode == 0;
 		}
-		else {
-			if (Log.debugEnabled()) {
-				Log.debug("Unexpected batch key returned: " + key.namespace + ',' + Buffer.bytesToHexString(key.digest));
-			}
-		}
 	}
 }
@@ -21,11 +21,9 @@
  ******************************************************************************/
 package com.aerospike.client.async;
 
-import java.util.HashMap;
 
 import com.aerospike.client.AerospikeException;
 import com.aerospike.client.Key;
-import com.aerospike.client.command.BatchItem;
 import com.aerospike.client.command.BatchNode;
 import com.aerospike.client.command.BatchNode.BatchNamespace;
 import com.aerospike.client.listener.ExistsArrayListener;
@@ -41,7 +39,7 @@ public final class AsyncBatchExistsArrayExecutor extends AsyncBatchExecutor {
 		Key[] keys,
 		ExistsArrayListener listener
 	) throws AerospikeException {
-		super(cluster, keys);
+		super(cluster, policy, keys);
 		this.existsArray = new boolean[keys.length];
 		this.listener = listener;
 		
@@ -49,12 +47,10 @@ public final class AsyncBatchExistsArrayExecutor extends AsyncBatchExecutor {
 			policy = new Policy();
 		}
 		
-		HashMap<Key,BatchItem> keyMap = BatchItem.generateMap(keys);
-		
 		// Dispatch asynchronous commands to nodes.
 		for (BatchNode batchNode : batchNodes) {			
 			for (BatchNamespace batchNamespace : batchNode.batchNamespaces) {
-				AsyncBatchExistsArray async = new AsyncBatchExistsArray(this, cluster, (AsyncNode)batchNode.node, batchNamespace, policy, keyMap, existsArray);
+				AsyncBatchExistsArray async = new AsyncBatchExistsArray(this, cluster, (AsyncNode)batchNode.node, batchNamespace, policy, existsArray);
 				async.execute();
 			}
 		}
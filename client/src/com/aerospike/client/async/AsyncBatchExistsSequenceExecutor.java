@@ -37,7 +37,7 @@ public final class AsyncBatchExistsSequenceExecutor extends AsyncBatchExecutor {
 		Key[] keys,
 		ExistsSequenceListener listener
 	) throws AerospikeException {
-		super(cluster, keys);
+		super(cluster, policy, keys);
 		this.listener = listener;
 		
 		if (policy == null) {
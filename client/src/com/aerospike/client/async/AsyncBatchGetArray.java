@@ -21,22 +21,16 @@
  ******************************************************************************/
 package com.aerospike.client.async;
 
-import java.util.HashMap;
 import java.util.HashSet;
 
 import com.aerospike.client.AerospikeException;
-import com.aerospike.client.Key;
-import com.aerospike.client.Log;
 import com.aerospike.client.Record;
-import com.aerospike.client.command.BatchItem;
 import com.aerospike.client.command.BatchNode;
-import com.aerospike.client.command.Buffer;
 import com.aerospike.client.policy.Policy;
 
 public final class AsyncBatchGetArray extends AsyncMultiCommand {
 	private final BatchNode.BatchNamespace batchNamespace;
 	private final Policy policy;
-	private final HashMap<Key,BatchItem> keyMap;
 	private final Record[] records;
 	private final int readAttr;
 	
@@ -46,7 +40,6 @@ public final class AsyncBatchGetArray extends AsyncMultiCommand {
 		AsyncNode node,
 		BatchNode.BatchNamespace batchNamespace,
 		Policy policy,
-		HashMap<Key,BatchItem> keyMap,
 		HashSet<String> binNames,
 		Record[] records,
 		int readAttr
@@ -54,7 +47,6 @@ public final class AsyncBatchGetArray extends AsyncMultiCommand {
 		super(parent, cluster, node, false, binNames);
 		this.batchNamespace = batchNamespace;
 		this.policy = policy;
-		this.keyMap = keyMap;
 		this.records = records;
 		this.readAttr = readAttr;
 	}
@@ -70,19 +62,14 @@ public final class AsyncBatchGetArray extends AsyncMultiCommand {
 	}
 
 	@Override
-	protected void parseRow(Key key) throws AerospikeException {		
-		BatchItem item = keyMap.get(key);
+	protected void parseRow() throws AerospikeException {		
+		int index = parseBatchIndex(batchNamespace);
 		
-		if (item != null) {				
-			if (resultCode == 0) {
-				int index = item.getIndex();
-				records[index] = parseRecordWithDuplicates();
-			}
+		if (index >= 0 && resultCode == 0) {
+			records[index] = parseRecordWithDuplicates();
 		}
 		else {
-			if (Log.debugEnabled()) {
-				Log.debug("Unexpected batch key returned: " + key.namespace + ',' + Buffer.bytesToHexString(key.digest));
-			}
+			skipRecord();
 		}
 	}
 }
@@ -21,13 +21,11 @@
  ******************************************************************************/
 package com.aerospike.client.async;
 
-import java.util.HashMap;
 import java.util.HashSet;
 
 import com.aerospike.client.AerospikeException;
 import com.aerospike.client.Key;
 import com.aerospike.client.Record;
-import com.aerospike.client.command.BatchItem;
 import com.aerospike.client.command.BatchNode;
 import com.aerospike.client.command.BatchNode.BatchNamespace;
 import com.aerospike.client.listener.RecordArrayListener;
@@ -45,7 +43,7 @@ public final class AsyncBatchGetArrayExecutor extends AsyncBatchExecutor {
 		HashSet<String> binNames,
 		int readAttr
 	) throws AerospikeException {
-		super(cluster, keys);
+		super(cluster, policy, keys);
 		this.recordArray = new Record[keys.length];
 		this.listener = listener;
 		
@@ -53,12 +51,10 @@ public final class AsyncBatchGetArrayExecutor extends AsyncBatchExecutor {
 			policy = new Policy();
 		}
 
-		HashMap<Key,BatchItem> keyMap = BatchItem.generateMap(keys);
-		
 		// Dispatch asynchronous commands to nodes.
 		for (BatchNode batchNode : batchNodes) {			
 			for (BatchNamespace batchNamespace : batchNode.batchNamespaces) {				
-				AsyncBatchGetArray async = new AsyncBatchGetArray(this, cluster, (AsyncNode)batchNode.node, batchNamespace, policy, keyMap, binNames, recordArray, readAttr);
+				AsyncBatchGetArray async = new AsyncBatchGetArray(this, cluster, (AsyncNode)batchNode.node, batchNamespace, policy, binNames, recordArray, readAttr);
 				async.execute();
 			}
 		}
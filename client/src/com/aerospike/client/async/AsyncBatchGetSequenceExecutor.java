@@ -41,7 +41,7 @@ public final class AsyncBatchGetSequenceExecutor extends AsyncBatchExecutor {
 		HashSet<String> binNames,
 		int readAttr
 	) throws AerospikeException {
-		super(cluster, keys);
+		super(cluster, policy, keys);
 		this.listener = listener;
 		
 		if (policy == null) {
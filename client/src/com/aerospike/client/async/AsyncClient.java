@@ -30,18 +30,27 @@ import com.aerospike.client.Bin;
 import com.aerospike.client.Host;
 import com.aerospike.client.Key;
 import com.aerospike.client.Operation;
+import com.aerospike.client.Record;
+import com.aerospike.client.ScanCallback;
+import com.aerospike.client.Value;
 import com.aerospike.client.command.Command;
 import com.aerospike.client.listener.DeleteListener;
 import com.aerospike.client.listener.ExistsArrayListener;
 import com.aerospike.client.listener.ExistsListener;
+import com.aerospike.client.listener.ExecuteListener;
+import com.aerospike.client.listener.ExecuteTaskListener;
 import com.aerospike.client.listener.ExistsSequenceListener;
 import com.aerospike.client.listener.RecordArrayListener;
 import com.aerospike.client.listener.RecordListener;
+import com.aerospike.client.listener.RecordPublisher;
 import com.aerospike.client.listener.RecordSequenceListener;
+import com.aerospike.client.listener.ResultSequenceListener;
 import com.aerospike.client.listener.WriteListener;
 import com.aerospike.client.policy.Policy;
+import com.aerospike.client.policy.QueryPolicy;
 import com.aerospike.client.policy.ScanPolicy;
 import com.aerospike.client.policy.WritePolicy;
+import com.aerospike.client.query.Statement;
 
 /**
  * Asynchronous Aerospike client.
@@ -139,6 +148,7 @@ public class AsyncClient extends AerospikeClient {
 		}
 		this.cluster = new AsyncCluster(policy, hosts);
 		super.cluster = this.cluster;
+		initReadCoalescer(policy);
 		
 		if (policy.failIfNotConnected && ! this.cluster.isConnected()) {
 			throw new AerospikeException.Connection("Failed to connect to host(s): " + Arrays.toString(hosts));
@@ -553,4 +563,484 @@ public class AsyncClient extends AerospikeClient {
 		policy.maxRetries = 0;
 		new AsyncScanExecutor(cluster, policy, listener, namespace, setName, binNames);
 	}
+
+	/**
+	 * Create publisher that reads all records in specified namespace and set as fast as the
+	 * subscriber requests them.  All server nodes are read in parallel.  The scan starts 
+	 * when a subscriber subscribes.  When the subscriber falls behind, socket reads are paused
+	 * per node, so memory is bounded by the policy's <code>recordQueueSize</code>.
+	 * 
+	 * @param policy				scan configuration parameters, pass in null for defaults
+	 * @param namespace				namespace - equivalent to database name
+	 * @param setName				optional set name - equivalent to database table
+	 * @param binNames				optional bin to retrieve. All bins will be returned if not specified.
+	 * @return						record publisher
+	 */
+	public final RecordPublisher scanPublisher(ScanPolicy policy, String namespace, String setName, String... binNames) {
+		if (policy == null) {
+			policy = new ScanPolicy();
+		}
+		
+		// Retry policy must be one-shot for scans.
+		policy.maxRetries = 0;
+		return new AsyncScanPublisher(cluster, policy, namespace, setName, binNames);
+	}
+
+	//-------------------------------------------------------
+	// User defined functions (Supported by Aerospike 3 servers only)
+	//-------------------------------------------------------
+
+	/**
+	 * Asynchronously execute user defined function on server and return results.
+	 * The function operates on a single record.
+	 * The package name is used to locate the udf file location:
+	 * <p>
+	 * udf file = <server udf dir>/<package name>.lua
+	 * <p>
+	 * This method schedules the execute command with a channel selector and returns.
+	 * Another thread will process the command and send the results to the listener.
+	 * 
+	 * @param policy				generic configuration parameters, pass in null for defaults
+	 * @param listener				where to send results, pass in null for fire and forget
+	 * @param key					unique record identifier
+	 * @param packageName			server package name where user defined function resides
+	 * @param functionName			user defined function
+	 * @param args					arguments passed in to user defined function
+	 * @throws AerospikeException	if queue is full
+	 */
+	public final void execute(Policy policy, ExecuteListener listener, Key key, String packageName, String functionName, Value... args) 
+		throws AerospikeException {
+		AsyncExecute command = new AsyncExecute(cluster, policy, listener, key, packageName, functionName, args);
+		command.execute();
+	}
+
+	//----------------------------------------------------------
+	// Query/Execute UDF (Supported by Aerospike 3 servers only)
+	//----------------------------------------------------------
+
+	/**
+	 * Asynchronously apply user defined function on records that match the statement filter.
+	 * Records are not returned to the client.  The listener is notified when all server 
+	 * nodes have accepted the command.  The returned task can be polled for completion
+	 * of the command on the servers.
+	 * 
+	 * @param policy				configuration parameters, pass in null for defaults
+	 * @param listener				where to send results, pass in null for fire and forget
+	 * @param statement				record filter
+	 * @param packageName			server package where user defined function resides
+	 * @param functionName			function name
+	 * @param functionArgs			to pass to function name, if any
+	 * @throws AerospikeException	if queue is full
+	 */
+	public final void execute(
+		Policy policy,
+		ExecuteTaskListener listener,
+		Statement statement,
+		String packageName,
+		String functionName,
+		Value... functionArgs
+	) throws AerospikeException {
+		if (policy == null) {
+			policy = new Policy();
+		}
+		new AsyncServerExecutor(cluster, policy, listener, statement, packageName, functionName, functionArgs);
+	}
+
+	/**
+	 * Asynchronously execute query on all server nodes.  The query policy's 
+	 * <code>maxConcurrentNodes</code> limits the number of nodes queried in parallel.
+	 * <p>
+	 * This method schedules the query commands with a channel selector and returns.
+	 * Another thread will process the commands and send the records to the listener.
+	 * 
+	 * @param policy				query configuration parameters, pass in null for defaults
+	 * @param listener				where to send results
+	 * @param statement				database query command
+	 * @throws AerospikeException	if query fails to start
+	 */
+	public final void query(QueryPolicy policy, RecordSequenceListener listener, Statement statement) 
+		throws AerospikeException {
+		if (policy == null) {
+			policy = new QueryPolicy();
+		}
+		new AsyncQueryExecutor(cluster, policy, listener, statement);
+	}
+
+	/**
+	 * Asynchronously execute query, apply statement's aggregation function, and send
+	 * aggregation results to the listener.  The aggregation function is called on both 
+	 * server and client (final reduce).  Therefore, the Lua script file must also reside 
+	 * on both server and client.  The package name is used to locate the udf file location:
+	 * <p>
+	 * udf file = <udf dir>/<package name>.lua
+	 * <p>
+	 * Node results are read by the channel selectors.  The client side aggregation runs
+	 * in a cluster thread pool thread, which also calls the listener.  Node commands stop 
+	 * reading when the policy's <code>recordQueueSize</code> results are waiting for aggregation.
+	 * 
+	 * @param policy				query configuration parameters, pass in null for defaults
+	 * @param listener				where to send aggregation results
+	 * @param statement				database query command
+	 * @param packageName			server package where user defined function resides
+	 * @param functionName			aggregation function name
+	 * @param functionArgs			arguments to pass to function name, if any
+	 * @throws AerospikeException	if query fails to start
+	 */
+	public final void queryAggregate(
+		QueryPolicy policy,
+		ResultSequenceListener listener,
+		Statement statement,
+		String packageName,
+		String functionName,
+		Value... functionArgs
+	) throws AerospikeException {
+		if (policy == null) {
+			policy = new QueryPolicy();
+		}
+		new AsyncQueryAggregateExecutor(cluster, policy, listener, statement, packageName, functionName, functionArgs);
+	}
+
+	//-------------------------------------------------------
+	// Future Operations
+	//-------------------------------------------------------
+
+	/**
+	 * Asynchronously write record bin(s) and return a future that completes with the key
+	 * when the write succeeds.
+	 * 
+	 * @param policy				write configuration parameters, pass in null for defaults
+	 * @param key					unique record identifier
+	 * @param bins					array of bin name/value pairs
+	 * @return						future result
+	 * @throws AerospikeException	if queue is full
+	 */
+	public final AsyncFuture<Key> putFuture(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+		WriteFuture future = new WriteFuture();
+		put(policy, future, key, bins);
+		return future.future;
+	}
+
+	/**
+	 * Asynchronously append bin string values to existing record bin values and return 
+	 * a future that completes with the key when the append succeeds.
+	 * 
+	 * @param policy				write configuration parameters, pass in null for defaults
+	 * @param key					unique record identifier
+	 * @param bins					array of bin name/value pairs
+	 * @return						future result
+	 * @throws AerospikeException	if queue is full
+	 */
+	public final AsyncFuture<Key> appendFuture(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+		WriteFuture future = new WriteFuture();
+		append(policy, future, key, bins);
+		return future.future;
+	}
+
+	/**
+	 * Asynchronously prepend bin string values to existing record bin values and return 
+	 * a future that completes with the key when the prepend succeeds.
+	 * 
+	 * @param policy				write configuration parameters, pass in null for defaults
+	 * @param key					unique record identifier
+	 * @param bins					array of bin name/value pairs
+	 * @return						future result
+	 * @throws AerospikeException	if queue is full
+	 */
+	public final AsyncFuture<Key> prependFuture(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+		WriteFuture future = new WriteFuture();
+		prepend(policy, future, key, bins);
+		return future.future;
+	}
+
+	/**
+	 * Asynchronously add integer bin values to existing record bin values and return 
+	 * a future that completes with the key when the add succeeds.
+	 * 
+	 * @param policy				write configuration parameters, pass in null for defaults
+	 * @param key					unique record identifier
+	 * @param bins					array of bin name/value pairs
+	 * @return						future result
+	 * @throws AerospikeException	if queue is full
+	 */
+	public final AsyncFuture<Key> addFuture(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+		WriteFuture future = new WriteFuture();
+		add(policy, future, key, bins);
+		return future.future;
+	}
+
+	/**
+	 * Asynchronously delete record and return a future that completes with whether 
+	 * the record existed before deletion.
+	 * 
+	 * @param policy				delete configuration parameters, pass in null for defaults
+	 * @param key					unique record identifier
+	 * @return						future result
+	 * @throws AerospikeException	if queue is full
+	 */
+	public final AsyncFuture<Boolean> deleteFuture(WritePolicy policy, Key key) throws AerospikeException {
+		ExistsFuture future = new ExistsFuture();
+		delete(policy, future, key);
+		return future.future;
+	}
+
+	/**
+	 * Asynchronously reset record's time to expiration and return a future that completes 
+	 * with the key when the touch succeeds.
+	 * 
+	 * @param policy				write configuration parameters, pass in null for defaults
+	 * @param key					unique record identifier
+	 * @return						future result
+	 * @throws AerospikeException	if queue is full
+	 */
+	public final AsyncFuture<Key> touchFuture(WritePolicy policy, Key key) throws AerospikeException {
+		WriteFuture future = new WriteFuture();
+		touch(policy, future, key);
+		return future.future;
+	}
+
+	/**
+	 * Asynchronously determine if a record key exists.
+	 * 
+	 * @param policy				generic configuration parameters, pass in null for defaults
+	 * @param key					unique record identifier
+	 * @return						future result
+	 * @throws AerospikeException	if queue is full
+	 */
+	public final AsyncFuture<Boolean> existsFuture(Policy policy, Key key) throws AerospikeException {
+		ExistsFuture future = new ExistsFuture();
+		exists(policy, future, key);
+		return future.future;
+	}
+
+	/**
+	 * Asynchronously check if multiple record keys exist in one batch call.
+	 * The result array indexes correspond to the key array indexes.
+	 * 
+	 * @param policy				generic configuration parameters, pass in null for defaults
+	 * @param keys					array of unique record identifiers
+	 * @return						future result
+	 * @throws AerospikeException	if queue is full
+	 */
+	public final AsyncFuture<boolean[]> existsFuture(Policy policy, Key[] keys) throws AerospikeException {
+		ExistsArrayFuture future = new ExistsArrayFuture();
+		exists(policy, future, keys);
+		return future.future;
+	}
+
+	/**
+	 * Asynchronously read entire record for specified key.
+	 * The future completes with null if the record is not found.
+	 * 
+	 * @param policy				generic configuration parameters, pass in null for defaults
+	 * @param key					unique record identifier
+	 * @return						future result
+	 * @throws AerospikeException	if queue is full
+	 */
+	public final AsyncFuture<Record> getFuture(Policy policy, Key key) throws AerospikeException {
+		RecordFuture future = new RecordFuture();
+		get(policy, future, key);
+		return future.future;
+	}
+
+	/**
+	 * Asynchronously read record header and bins for specified key.
+	 * The future completes with null if the record is not found.
+	 * 
+	 * @param policy				generic configuration parameters, pass in null for defaults
+	 * @param key					unique record identifier
+	 * @param binNames				bins to retrieve
+	 * @return						future result
+	 * @throws AerospikeException	if queue is full
+	 */
+	public final AsyncFuture<Record> getFuture(Policy policy, Key key, String... binNames) throws AerospikeException {
+		RecordFuture future = new RecordFuture();
+		get(policy, future, key, binNames);
+		return future.future;
+	}
+
+	/**
+	 * Asynchronously read record generation and expiration only for specified key.  Bins are not read.
+	 * The future completes with null if the record is not found.
+	 * 
+	 * @param policy				generic configuration parameters, pass in null for defaults
+	 * @param key					unique record identifier
+	 * @return						future result
+	 * @throws AerospikeException	if queue is full
+	 */
+	public final AsyncFuture<Record> getHeaderFuture(Policy policy, Key key) throws AerospikeException {
+		RecordFuture future = new RecordFuture();
+		getHeader(policy, future, key);
+		return future.future;
+	}
+
+	/**
+	 * Asynchronously read multiple records for specified keys in one batch call.
+	 * The result array indexes correspond to the key array indexes.
+	 * If a key is not found, the record will be null.
+	 * 
+	 * @param policy				generic configuration parameters, pass in null for defaults
+	 * @param keys					array of unique record identifiers
+	 * @return						future result
+	 * @throws AerospikeException	if queue is full
+	 */
+	public final AsyncFuture<Record[]> getFuture(Policy policy, Key[] keys) throws AerospikeException {
+		RecordArrayFuture future = new RecordArrayFuture();
+		get(policy, future, keys);
+		return future.future;
+	}
+
+	/**
+	 * Asynchronously read multiple record headers and bins for specified keys in one batch call.
+	 * The result array indexes correspond to the key array indexes.
+	 * If a key is not found, the record will be null.
+	 * 
+	 * @param policy				generic configuration parameters, pass in null for defaults
+	 * @param keys					array of unique record identifiers
+	 * @param binNames				array of bins to retrieve
+	 * @return						future result
+	 * @throws AerospikeException	if queue is full
+	 */
+	public final AsyncFuture<Record[]> getFuture(Policy policy, Key[] keys, String... binNames) throws AerospikeException {
+		RecordArrayFuture future = new RecordArrayFuture();
+		get(policy, future, keys, binNames);
+		return future.future;
+	}
+
+	/**
+	 * Asynchronously read multiple record header data for specified keys in one batch call.
+	 * The result array indexes correspond to the key array indexes.
+	 * If a key is not found, the record will be null.
+	 * 
+	 * @param policy				generic configuration parameters, pass in null for defaults
+	 * @param keys					array of unique record identifiers
+	 * @return						future result
+	 * @throws AerospikeException	if queue is full
+	 */
+	public final AsyncFuture<Record[]> getHeaderFuture(Policy policy, Key[] keys) throws AerospikeException {
+		RecordArrayFuture future = new RecordArrayFuture();
+		getHeader(policy, future, keys);
+		return future.future;
+	}
+
+	/**
+	 * Asynchronously perform multiple read/write operations on a single key in one batch call.
+	 * The future completes with the record produced by the read operations.
+	 * 
+	 * @param policy				write configuration parameters, pass in null for defaults
+	 * @param key					unique record identifier
+	 * @param operations			database operations to perform
+	 * @return						future result
+	 * @throws AerospikeException	if queue is full
+	 */
+	public final AsyncFuture<Record> operateFuture(WritePolicy policy, Key key, Operation... operations) 
+		throws AerospikeException {
+		RecordFuture future = new RecordFuture();
+		operate(policy, future, key, operations);
+		return future.future;
+	}
+
+	/**
+	 * Asynchronously read all records in specified namespace and set.  Records are passed
+	 * to the callback from selector threads, so the callback must not block.  The future
+	 * completes when all nodes have been scanned.
+	 * 
+	 * @param policy				scan configuration parameters, pass in null for defaults
+	 * @param callback				read callback method - called with record data
+	 * @param namespace				namespace - equivalent to database name
+	 * @param setName				optional set name - equivalent to database table
+	 * @param binNames				optional bin to retrieve. All bins will be returned if not specified.
+	 * @return						future that completes when scan finishes
+	 * @throws AerospikeException	if queue is full
+	 */
+	public final AsyncFuture<Void> scanAllFuture(ScanPolicy policy, ScanCallback callback, String namespace, String setName, String... binNames)
+		throws AerospikeException {
+		ScanFuture future = new ScanFuture(callback);
+		scanAll(policy, future, namespace, setName, binNames);
+		return future.future;
+	}
+
+	//-------------------------------------------------------
+	// Future Listener Adapters
+	//-------------------------------------------------------
+
+	private static final class WriteFuture implements WriteListener {
+		private final AsyncFuture<Key> future = new AsyncFuture<Key>();
+
+		public void onSuccess(Key key) {
+			future.complete(key);
+		}
+
+		public void onFailure(AerospikeException exception) {
+			future.fail(exception);
+		}
+	}
+
+	private static final class ExistsFuture implements ExistsListener, DeleteListener {
+		private final AsyncFuture<Boolean> future = new AsyncFuture<Boolean>();
+
+		public void onSuccess(Key key, boolean exists) {
+			future.complete(exists);
+		}
+
+		public void onFailure(AerospikeException exception) {
+			future.fail(exception);
+		}
+	}
+
+	private static final class ExistsArrayFuture implements ExistsArrayListener {
+		private final AsyncFuture<boolean[]> future = new AsyncFuture<boolean[]>();
+
+		public void onSuccess(Key[] keys, boolean[] exists) {
+			future.complete(exists);
+		}
+
+		public void onFailure(AerospikeException exception) {
+			future.fail(exception);
+		}
+	}
+
+	private static final class RecordFuture implements RecordListener {
+		private final AsyncFuture<Record> future = new AsyncFuture<Record>();
+
+		public void onSuccess(Key key, Record record) {
+			future.complete(record);
+		}
+
+		public void onFailure(AerospikeException exception) {
+			future.fail(exception);
+		}
+	}
+
+	private static final class RecordArrayFuture implements RecordArrayListener {
+		private final AsyncFuture<Record[]> future = new AsyncFuture<Record[]>();
+
+		public void onSuccess(Key[] keys, Record[] records) {
+			future.complete(records);
+		}
+
+		public void onFailure(AerospikeException exception) {
+			future.fail(exception);
+		}
+	}
+
+	private static final class ScanFuture implements RecordSequenceListener {
+		private final AsyncFuture<Void> future = new AsyncFuture<Void>();
+		private final ScanCallback callback;
+
+		public ScanFuture(ScanCallback callback) {
+			this.callback = callback;
+		}
+
+		public void onRecord(Key key, Record record) throws AerospikeException {
+			callback.scanCallback(key, record);
+		}
+
+		public void onSuccess() {
+			future.complete(null);
+		}
+
+		public void onFailure(AerospikeException exception) {
+			future.fail(exception);
+		}
+	}
 }
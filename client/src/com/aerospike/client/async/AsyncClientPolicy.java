@@ -53,11 +53,51 @@ public final class AsyncClientPolicy extends ClientPolicy {
 	 */
 	public int asyncMaxCommands = 200;
 
+	/**
+	 * Adapt the number of concurrent asynchronous commands sent to each server node to that 
+	 * node's observed latency.  The per-node limit shrinks when responses slow down or time out 
+	 * and grows back while the node keeps up.  Commands that exceed a node's current limit are 
+	 * handled according to asyncMaxCommandAction: REJECT fails the command, BLOCK waits for a slot 
+	 * (up to the command timeout) and ACCEPT sends the command anyway.  Selector threads never 
+	 * block, so BLOCK behaves like REJECT for commands started from a listener running in a 
+	 * selector thread.  Retries are always accepted.
+	 */
+	public boolean asyncAdaptiveNodeCommands;
+	
+	/**
+	 * Lower bound of the adaptive per-node command limit.
+	 */
+	public int asyncMinNodeCommands = 8;
+	
+	/**
+	 * Upper bound and starting value of the adaptive per-node command limit.
+	 * The default of zero uses asyncMaxCommands.
+	 */
+	public int asyncMaxNodeCommands;
+	
+	/**
+	 * Multiple of the node's baseline latency above which a response is considered 
+	 * a congestion signal by the adaptive per-node command limit.
+	 */
+	public double asyncLatencyTolerance = 2.0;
+	
+	/**
+	 * Factor applied to the adaptive per-node command limit on congestion.
+	 */
+	public double asyncLimitBackoff = 0.9;
+
 	/**
 	 * Maximum milliseconds to wait for an asynchronous network selector event.  
 	 * The default value of zero indicates the selector should not timeout.
 	 */
 	public int asyncSelectorTimeout;
+	
+	/**
+	 * Resolution in milliseconds of the timing wheel that expires asynchronous command 
+	 * timeouts and hedged read delays.  While such commands are pending, selector threads 
+	 * wake up at least once per tick.  Timeouts may fire up to one tick late.
+	 */
+	public int asyncTimerTick = 5;
 
 	/**
 	 * Number of selector threads used to process asynchronous network events.  The default is
@@ -66,6 +106,15 @@ public final class AsyncClientPolicy extends ClientPolicy {
 	 */
 	public int asyncSelectorThreads = 1;
 	
+	/**
+	 * Network event loops used to run asynchronous commands.  The default, null, indicates
+	 * the client should create asyncSelectorThreads NIO selector threads.  Set to a 
+	 * {@link NettyTransport} to share Netty event loops with the rest of the application.
+	 * When set, asyncSelectorThreads, asyncSelectorTimeout and asyncTaskThreadPool are ignored.
+	 * The transport is not closed with the client when it wraps application owned event loops.
+	 */
+	public AsyncTransport asyncTransport;
+	
 	/**
 	 * Asynchronous socket read/user callback task thread pool.  The default, null, indicates 
 	 * asynchronous tasks should be run in the same thread as the selector.
@@ -35,15 +35,36 @@ public final class AsyncCluster extends Cluster {
 	// ByteBuffer pool used in asynchronous SocketChannel communications.
 	private final BufferQueue bufferQueue;
 	
-	// Asynchronous network selectors.
-	private final SelectorManagers selectorManagers;
+	// Asynchronous network event loops.
+	private final AsyncTransport transport;
 	
 	// Maximum number of concurrent asynchronous commands.
 	private final int maxCommands;
 	
+	// How to handle commands that exceed a command limit.
+	private final MaxCommandAction maxCommandAction;
+	
+	// Adaptive per-node command limit settings.  Disabled when maxNodeCommands is zero.
+	private final int minNodeCommands;
+	private final int maxNodeCommands;
+	private final double latencyTolerance;
+	private final double limitBackoff;
+	
 	public AsyncCluster(AsyncClientPolicy policy, Host[] hosts) throws AerospikeException {
 		super(policy, hosts);
 		maxCommands = policy.asyncMaxCommands;
+		maxCommandAction = policy.asyncMaxCommandAction;
+		
+		if (policy.asyncAdaptiveNodeCommands) {
+			minNodeCommands = policy.asyncMinNodeCommands;
+			maxNodeCommands = (policy.asyncMaxNodeCommands > 0)? policy.asyncMaxNodeCommands : maxCommands;
+		}
+		else {
+			minNodeCommands = 0;
+			maxNodeCommands = 0;
+		}
+		latencyTolerance = policy.asyncLatencyTolerance;
+		limitBackoff = policy.asyncLimitBackoff;
 		
 		switch (policy.asyncMaxCommandAction) {
 		case ACCEPT:
@@ -60,7 +81,7 @@ public final class AsyncCluster extends Cluster {
 			break;
 		}
 		
-		selectorManagers = new SelectorManagers(policy);
+		transport = (policy.asyncTransport != null)? policy.asyncTransport : new SelectorManagers(policy);
 		initTendThread();
 	}
 	
@@ -73,26 +94,48 @@ public final class AsyncCluster extends Cluster {
 		return bufferQueue.getByteBuffer();
 	}
 	
+	/**
+	 * Get buffer without blocking.  Return null if a buffer is not available.
+	 */
+	public ByteBuffer pollByteBuffer() {
+		return bufferQueue.pollByteBuffer();
+	}
+	
 	public void putByteBuffer(ByteBuffer byteBuffer) {
 		bufferQueue.putByteBuffer(byteBuffer);
 	}
 	
-	public SelectorManager getSelectorManager() {
-        return selectorManagers.next();
+	public AsyncTransport getTransport() {
+		return transport;
 	}
 	
 	public int getMaxCommands() {
 		return maxCommands;
 	}
 	
+	public MaxCommandAction getMaxCommandAction() {
+		return maxCommandAction;
+	}
+	
+	/**
+	 * Create adaptive command limiter for a new node.  Return null if adaptive limits are disabled.
+	 */
+	public AdaptiveLimiter createLimiter() {
+		if (maxNodeCommands <= 0) {
+			return null;
+		}
+		return new AdaptiveLimiter(minNodeCommands, maxNodeCommands, latencyTolerance, limitBackoff);
+	}
+	
 	@Override
 	public void close() {
 		super.close();		
-		selectorManagers.close();
+		transport.close();
 	}
 	
 	private static interface BufferQueue {
 		public ByteBuffer getByteBuffer() throws AerospikeException;
+		public ByteBuffer pollByteBuffer();
 		public void putByteBuffer(ByteBuffer byteBuffer);
 	}
 	
@@ -122,6 +165,11 @@ public final class AsyncCluster extends Cluster {
 				throw new AerospikeException("Buffer pool take interrupted.");
 			}
 		}
+
+		@Override
+		public ByteBuffer pollByteBuffer() {
+			return bufferQueue.poll();
+		}
 		
 		@Override
 		public void putByteBuffer(ByteBuffer byteBuffer) {
@@ -154,6 +202,11 @@ public final class AsyncCluster extends Cluster {
 			}
 			return byteBuffer;
 		}
+
+		@Override
+		public ByteBuffer pollByteBuffer() {
+			return bufferQueue.poll();
+		}
 		
 		@Override
 		public void putByteBuffer(ByteBuffer byteBuffer) {
@@ -185,6 +238,12 @@ public final class AsyncCluster extends Cluster {
 			}
 			return byteBuffer;
 		}
+
+		@Override
+		public ByteBuffer pollByteBuffer() {
+			ByteBuffer byteBuffer = bufferQueue.poll();
+			return (byteBuffer != null)? byteBuffer : ByteBuffer.allocateDirect(8192);
+		}
 		
 		@Override
 		public void putByteBuffer(ByteBuffer byteBuffer) {
@@ -24,8 +24,10 @@ package com.aerospike.client.async;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import com.aerospike.client.AerospikeException;
+import com.aerospike.client.ResultCode;
 import com.aerospike.client.command.Command;
 import com.aerospike.client.policy.Policy;
 import com.aerospike.client.util.Util;
@@ -33,17 +35,27 @@ import com.aerospike.client.util.Util;
 /**
  * Asynchronous command handler.
  */
-public abstract class AsyncCommand extends Command implements Runnable {
+public abstract class AsyncCommand extends Command implements Runnable, TimeoutWheel.Timer {
+	private static final AtomicReferenceFieldUpdater<AsyncCommand,AsyncNode> limitUpdater =
+		AtomicReferenceFieldUpdater.newUpdater(AsyncCommand.class, AsyncNode.class, "limitNode");
 	
 	protected AsyncConnection conn;
 	protected ByteBuffer byteBuffer;
+	private ByteBuffer pooledBuffer;
 	protected final AsyncCluster cluster;
 	protected AsyncNode node;
 	private final AtomicBoolean complete = new AtomicBoolean();
+	private final AtomicBoolean cancelled = new AtomicBoolean();
 	private long limit;
 	protected int timeout;
 	private int iteration;
+	protected volatile long hedgeLimit;
 	protected boolean inHeader = true;
+	protected boolean paused;
+	volatile boolean inTask;
+	private volatile AsyncNode limitNode;
+	private long limitStart;
+	private boolean retry;
 	
 	public AsyncCommand(AsyncCluster cluster) {
 		this.cluster = cluster;
@@ -63,20 +75,22 @@ public abstract class AsyncCommand extends Command implements Runnable {
 		
 	public void executeCommand() throws AerospikeException {
 		if (complete.get()) {
+			// Command may have been cancelled while waiting to retry.
+			releaseCancelled();
 			return;
 		}
 
 		try {
 			node = getNode();
+			acquireLimit();
 			conn = node.getAsyncConnection();			
 			writeBuffer();
 				
-			if (dataOffset > byteBuffer.capacity()) {
-				byteBuffer = ByteBuffer.allocateDirect(dataOffset);
-			}
+			int size = getCommandSize();
 			
+			resizeByteBuffer(size);
 			byteBuffer.clear();
-			byteBuffer.put(dataBuffer, 0, dataOffset);
+			writeCommand(byteBuffer);
 			byteBuffer.flip();
 	
 			conn.execute(this);
@@ -92,6 +106,11 @@ public abstract class AsyncCommand extends Command implements Runnable {
 				throw ce;
 			}
 		}
+		catch (AerospikeException ae) {
+			if (!failOnApplicationInit()) {
+				throw ae;
+			}
+		}
 		catch (Exception e) {
 			if (!failOnApplicationInit()) {
 				throw new AerospikeException(e);
@@ -99,6 +118,56 @@ public abstract class AsyncCommand extends Command implements Runnable {
 		}
 	}
 
+	/**
+	 * Reserve a slot in the node's adaptive command limit.  When the limit is reached, 
+	 * follow the cluster's MaxCommandAction.  Retries keep their place and are always 
+	 * accepted.  Transport event loop threads never block, so BLOCK rejects there instead.
+	 */
+	private void acquireLimit() throws AerospikeException {
+		AdaptiveLimiter limiter = node.getLimiter();
+		
+		if (limiter == null) {
+			return;
+		}
+		
+		if (! limiter.tryAcquire()) {
+			MaxCommandAction action = cluster.getMaxCommandAction();
+			
+			if (retry || action == MaxCommandAction.ACCEPT) {
+				limiter.forceAcquire();
+			}
+			else if (action == MaxCommandAction.BLOCK && ! cluster.getTransport().inEventLoop()) {
+				limiter.acquire(limit);
+			}
+			else {
+				throw new AerospikeException.CommandRejected();
+			}
+		}
+		limitStart = System.nanoTime();
+		limitNode = node;
+		
+		if (complete.get()) {
+			// Command timed out while acquiring.  Timeout handler may have missed this slot.
+			releaseLimit(AdaptiveLimiter.IGNORED);
+		}
+	}
+	
+	/**
+	 * Free the node command slot held by this command, if any.  Safe to call more than once 
+	 * and from competing threads.
+	 */
+	private void releaseLimit(int outcome) {
+		if (limitNode == null) {
+			return;
+		}
+		
+		AsyncNode limited = limitUpdater.getAndSet(this, null);
+		
+		if (limited != null) {
+			limited.getLimiter().release(outcome, System.nanoTime() - limitStart);
+		}
+	}
+
 	private boolean retryOnInit() throws AerospikeException {
 		if (complete.get()) {
 			return true;
@@ -115,6 +184,14 @@ public abstract class AsyncCommand extends Command implements Runnable {
 			// timeout after sleep completed.
 			return failOnNetworkInit();
 		}
+		
+		if (node != null && ! node.acquireRetry()) {
+			// Node's retry budget has been exhausted.  Fail fast.
+			if (failOnNetworkInit()) {
+				return true;
+			}
+			throw new AerospikeException(ResultCode.RETRY_BUDGET_EXCEEDED);
+		}
 
 		// Prepare for retry.
 		resetConnection();
@@ -129,7 +206,7 @@ public abstract class AsyncCommand extends Command implements Runnable {
 	}
 
 	protected final void write() throws IOException {
-		conn.write(byteBuffer);
+		((SelectorConnection)conn).write(byteBuffer);
 	}
 
 	protected final void retryAfterInit(AerospikeException ae) {
@@ -150,6 +227,12 @@ public abstract class AsyncCommand extends Command implements Runnable {
 			failOnNetworkError(ae);
 			return;
 		}
+		
+		if (node != null && ! node.acquireRetry()) {
+			// Node's retry budget has been exhausted.  Fail fast.
+			failOnNetworkError(new AerospikeException(ResultCode.RETRY_BUDGET_EXCEEDED, ae));
+			return;
+		}
 
 		// Prepare for retry.
 		resetConnection();
@@ -173,6 +256,8 @@ public abstract class AsyncCommand extends Command implements Runnable {
 		if (node != null) {
 			node.decreaseHealth();
 		}
+		releaseLimit(AdaptiveLimiter.DROPPED);
+		retry = true;
 
 		if (limit > 0) {
 			// A lock on reset is required when a client timeout is specified.
@@ -191,12 +276,83 @@ public abstract class AsyncCommand extends Command implements Runnable {
 		}
 	}
 
-	protected final boolean checkTimeout() {
+	/**
+	 * Start speculative copy of this command on a different node with the same deadline.
+	 * The copy does not retry and is not started when a buffer is not immediately available,
+	 * because this method runs in the selector thread.  Return true if the copy was started.
+	 */
+	protected final boolean executeHedge(AsyncCommand hedge) {
+		hedge.timeout = timeout;
+		hedge.limit = limit;
+		hedge.iteration = getPolicy().maxRetries;
+		hedge.byteBuffer = cluster.pollByteBuffer();
+		
+		if (hedge.byteBuffer == null) {
+			hedge.complete.set(true);
+			return false;
+		}
+		
+		try {
+			hedge.executeCommand();
+			return true;
+		}
+		catch (AerospikeException ae) {
+			// Hedge has already been cleaned up.
+			return false;
+		}
+	}
+
+	/**
+	 * Abandon command without notifying listener.  Used to stop the losing request 
+	 * of a hedged read.  This method may run in another command's thread, so the 
+	 * buffer and node command slot are released later by the thread that owns them.
+	 */
+	protected final void cancel() {
+		if (complete.compareAndSet(false, true)) {
+			cancelled.set(true);
+			
+			synchronized (this) {
+				if (conn != null) {
+					conn.close();
+					conn.resume(this);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Release resources of a cancelled command.  Called in the thread that owns the 
+	 * command.  Does nothing if the command was not cancelled or was already released.
+	 */
+	private void releaseCancelled() {
+		if (cancelled.compareAndSet(true, false)) {
+			releaseLimit(AdaptiveLimiter.IGNORED);
+			putByteBuffer();
+		}
+	}
+
+	/**
+	 * Return earliest of client timeout and hedge deadline, or zero if neither is set.
+	 */
+	public final long getDeadline() {
+		long hedge = hedgeLimit;
+		
+		if (hedge > 0 && (limit == 0 || hedge < limit)) {
+			return hedge;
+		}
+		return limit;
+	}
+
+	/**
+	 * Handle client timeout and hedge deadline at the given time.  Return true if the
+	 * command is still active and should be checked again.  Called in selector thread.
+	 */
+	public final boolean expire(long current) {
 		if (complete.get()) {
 			return false;
 		}
 		
-		if (limit > 0 && System.currentTimeMillis() > limit) {
+		if (limit > 0 && current > limit) {
 			// Command has timed out in timeout queue thread.
 			// Ensure that command succeeds or fails, but not both.
 			if (complete.compareAndSet(false, true)) {
@@ -211,6 +367,12 @@ public abstract class AsyncCommand extends Command implements Runnable {
 			}
 			return false;  // Do not put back on timeout queue.
 		}
+		
+		if (hedgeLimit > 0 && current >= hedgeLimit) {
+			// Send speculative request only once.
+			hedgeLimit = 0;
+			hedge();
+		}
 		return true;
 	}
 	
@@ -218,7 +380,11 @@ public abstract class AsyncCommand extends Command implements Runnable {
 		try {
 			read();
 			
-			if (! complete.get()) {
+			if (paused) {
+				conn.pauseRead();
+				readPaused();
+			}
+			else if (! complete.get()) {
 				conn.setReadable();
 			}
 		}
@@ -236,8 +402,46 @@ public abstract class AsyncCommand extends Command implements Runnable {
 			// Fail without retry on unknown errors.
 			failOnApplicationError(new AerospikeException(e));
         }
+        finally {
+        	// The selector thread does not release a cancelled command while this task 
+        	// runs.  Clear the flag before releasing, so one of the two threads releases it.
+        	inTask = false;
+        }
+		releaseCancelled();
+	}
+	
+	/**
+	 * Called by the reading thread after read() stopped early and set the paused flag.
+	 * Socket read interest has already been removed.
+	 */
+	protected void readPaused() {
+	}
+
+	/**
+	 * Ask the selector thread to continue reading a paused command.
+	 */
+	final void scheduleResume() {
+		if (conn != null) {
+			conn.resume(this);
+		}
 	}
 	
+	/**
+	 * Continue reading a paused command, or release a cancelled command.  
+	 * Called in selector thread.  A cancelled command that is still running in the 
+	 * task thread pool is released by that task instead.
+	 */
+	final void resume() {
+		paused = false;
+		
+		if (! complete.get()) {
+			conn.setReadable();
+		}
+		else if (! inTask) {
+			releaseCancelled();
+		}
+	}
+
 	protected final void finish() {
 		// Finish could be called from a separate asyncTaskThreadPool thread.
 		// Make sure SelectorManager thread has not already caused a transaction timeout.
@@ -246,9 +450,14 @@ public abstract class AsyncCommand extends Command implements Runnable {
 			conn.updateLastUsed();
 			node.putAsyncConnection(conn);
 			node.restoreHealth();
-			cluster.putByteBuffer(byteBuffer);
+			releaseLimit(sampleLatency()? AdaptiveLimiter.SUCCESS : AdaptiveLimiter.IGNORED);
+			putByteBuffer();
 			onSuccess();
-		} 
+		}
+		else if (conn != null) {
+			// Command was cancelled or timed out while the response was being read.
+			conn.close();
+		}
 	}
 
 	private boolean failOnNetworkInit() {
@@ -290,7 +499,8 @@ public abstract class AsyncCommand extends Command implements Runnable {
 				conn.updateLastUsed();
 				node.putAsyncConnection(conn);
 				node.restoreHealth();
-				cluster.putByteBuffer(byteBuffer);
+				releaseLimit(sampleLatency()? AdaptiveLimiter.SUCCESS : AdaptiveLimiter.IGNORED);
+				putByteBuffer();
 			}
 			else {
 				// Close socket to flush out possible garbage.
@@ -310,6 +520,7 @@ public abstract class AsyncCommand extends Command implements Runnable {
 		if (node != null) {
 			node.decreaseHealth();
 		}
+		releaseLimit(AdaptiveLimiter.DROPPED);
 		close();
 	}
 
@@ -319,7 +530,47 @@ public abstract class AsyncCommand extends Command implements Runnable {
 		if (conn != null && conn.isConnected()) {
 			conn.close();
 		}
-		cluster.putByteBuffer(byteBuffer);
+		releaseLimit(AdaptiveLimiter.IGNORED);
+		putByteBuffer();
+	}
+
+	/**
+	 * Make sure byteBuffer can hold the given number of bytes.  Oversized buffers are 
+	 * allocated on the heap and are never pooled, so the pool only holds standard direct 
+	 * buffers.  The pooled buffer is kept aside and returned when the command completes.
+	 */
+	protected final void resizeByteBuffer(int size) {
+		if (size > byteBuffer.capacity()) {
+			if (pooledBuffer == null) {
+				pooledBuffer = byteBuffer;
+			}
+			byteBuffer = ByteBuffer.allocate(size);
+		}
+	}
+	
+	private void putByteBuffer() {
+		if (pooledBuffer != null) {
+			cluster.putByteBuffer(pooledBuffer);
+			pooledBuffer = null;
+		}
+		else {
+			cluster.putByteBuffer(byteBuffer);
+		}
+	}
+
+	/**
+	 * Return true if this command's latency is representative of a single database 
+	 * operation and should adjust the node's adaptive command limit.  Default is false.
+	 */
+	protected boolean sampleLatency() {
+		return false;
+	}
+
+	/**
+	 * Send speculative copy of command when the hedge delay expires.  
+	 * Default does nothing.
+	 */
+	protected void hedge() {
 	}
 
 	protected abstract AsyncNode getNode() throws AerospikeException.InvalidNode;
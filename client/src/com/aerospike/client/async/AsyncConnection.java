@@ -21,149 +21,75 @@
  ******************************************************************************/
 package com.aerospike.client.async;
 
-import java.io.EOFException;
 import java.io.IOException;
-import java.net.InetSocketAddress;
-import java.net.Socket;
 import java.nio.ByteBuffer;
-import java.nio.channels.ClosedChannelException;
-import java.nio.channels.SelectionKey;
-import java.nio.channels.Selector;
-import java.nio.channels.SocketChannel;
-
-import com.aerospike.client.AerospikeException;
-import com.aerospike.client.Log;
-import com.aerospike.client.util.Util;
 
 /**
- * Asynchronous socket channel connection wrapper.
+ * Asynchronous connection to a server node, bound to one transport event loop.
  */
-public final class AsyncConnection {
-	private final SocketChannel socketChannel;
-	private final SelectorManager manager;
-	private SelectionKey key;
+public abstract class AsyncConnection {
 	private final long maxSocketIdleMillis;
 	private long lastUsed;
 	
-	public AsyncConnection(InetSocketAddress address, AsyncCluster cluster) throws AerospikeException.Connection {
-		this.manager = cluster.getSelectorManager();
+	protected AsyncConnection(AsyncCluster cluster) {
 		this.maxSocketIdleMillis = (long)cluster.getMaxSocketIdle() * 1000L;
-		
-		try {
-			socketChannel = SocketChannel.open();
-		}
-		catch (Exception e) {
-			throw new AerospikeException.Connection("SocketChannel open error: " + e.getMessage());
-		}
-
-		try {
-			socketChannel.configureBlocking(false);
-			Socket socket = socketChannel.socket();
-			socket.setTcpNoDelay(true);
-			
-			// These options are useful when the connection pool is poorly bounded or there are a large
-			// amount of network errors.  Since these conditions are not the normal use case and
-			// the options could theoretically result in latent data being sent to new commands, leave
-			// them out for now.
-			// socket.setReuseAddress(true);
-			// socket.setSoLinger(true, 0);
-			
-			socketChannel.connect(address);
-			lastUsed = System.currentTimeMillis();
-		}
-		catch (Exception e) {
-			close();
-			throw new AerospikeException.Connection("SocketChannel init error: " + e.getMessage());
-		}
+		this.lastUsed = System.currentTimeMillis();
 	}
 	
-	public void execute(AsyncCommand command) {
-		manager.execute(command);
-	}
+	/**
+	 * Return index of the event loop that owns this connection.
+	 */
+	public abstract int getIndex();
 
-    public void register(AsyncCommand command, Selector selector) throws ClosedChannelException {
-    	if (key != null) {
-			key.attach(command);
-			key.interestOps(SelectionKey.OP_WRITE);
-    	}
-    	else {
-    		key = socketChannel.register(selector, SelectionKey.OP_CONNECT, command);    		
-    	}
-    }
-    
-    public void unregister() {
-    	key.interestOps(0);
-    	key.attach(null);
-    }
+	/**
+	 * Queue command to be sent on this connection by its event loop.
+	 */
+	public abstract void execute(AsyncCommand command);
 
-    public void write(ByteBuffer byteBuffer) throws IOException {
-		socketChannel.write(byteBuffer);
-    	
-		if (! byteBuffer.hasRemaining()) {
-			byteBuffer.clear();
-			byteBuffer.limit(8);
-			key.interestOps(SelectionKey.OP_READ);
-		}
-    }
-    
-    public void setReadable() {   	
-		key.interestOps(SelectionKey.OP_READ);
-    }
+	/**
+	 * Ask the event loop to continue reading a paused command.
+	 */
+	public abstract void resume(AsyncCommand command);
 
-    /**
-     * Read till byteBuffer limit reached or received would-block.
-     */
-    public boolean read(ByteBuffer byteBuffer) throws IOException {
-		while (byteBuffer.hasRemaining()) {
-			int len = socketChannel.read(byteBuffer);
-			
-			if (len == 0) {			
-				// Got would-block.
-				return false;
-			}
-			
-			if (len < 0) {
-				// Server has shutdown socket.
-		    	throw new EOFException();
-			}
-		}
-		return true;
-    }
+	/**
+	 * Read till byteBuffer limit reached or no more data is available.
+	 * Return true if byteBuffer was filled.
+	 */
+	public abstract boolean read(ByteBuffer byteBuffer) throws IOException;
 
 	/**
-	 * Is socket connected and used within specified limits.
+	 * Wait for more response data.
 	 */
-	public boolean isValid() {
-		return socketChannel.isConnected() && (System.currentTimeMillis() - lastUsed) <= maxSocketIdleMillis;
-	}
-	
+	public abstract void setReadable();
+
+	/**
+	 * Stop reading response data until the command is resumed.
+	 */
+	public abstract void pauseRead();
+
+	/**
+	 * Detach completed command before the connection is put back in the pool.
+	 */
+	public abstract void unregister();
+
 	/**
 	 * Is socket connected.
 	 */
-	public boolean isConnected() {
-		return socketChannel.isConnected();
-	}
-		
-	public void updateLastUsed() {
-		lastUsed = System.currentTimeMillis();
-	}
+	public abstract boolean isConnected();
+
+	/**
+	 * Close socket.
+	 */
+	public abstract void close();
 
 	/**
-	 * Close socket channel.
+	 * Is socket connected and used within specified limits.
 	 */
-	public void close() {
-		if (key != null) {
-			key.cancel();
-			key = null;
-		}
+	public final boolean isValid() {
+		return isConnected() && (System.currentTimeMillis() - lastUsed) <= maxSocketIdleMillis;
+	}
 		
-		try {
-			socketChannel.close();
-		}
-		catch (Exception e) {
-			if (Log.debugEnabled()) {
-				Log.debug("Error closing socket: " + Util.getErrorMessage(e));
-			}
-		}
+	public final void updateLastUsed() {
+		lastUsed = System.currentTimeMillis();
 	}
 }
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.async;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.Value;
+import com.aerospike.client.command.ExecuteCommand;
+import com.aerospike.client.listener.ExecuteListener;
+import com.aerospike.client.listener.RecordListener;
+import com.aerospike.client.policy.Policy;
+
+public final class AsyncExecute extends AsyncRead {
+	private final String packageName;
+	private final String functionName;
+	private final Value[] args;
+	
+	public AsyncExecute(
+		AsyncCluster cluster,
+		Policy policy,
+		ExecuteListener listener,
+		Key key,
+		String packageName,
+		String functionName,
+		Value[] args
+	) {
+		super(cluster, policy, (listener == null)? null : new ExecuteRecordListener(listener), key, null);
+		this.packageName = packageName;
+		this.functionName = functionName;
+		this.args = args;
+	}
+
+	@Override
+	protected void writeBuffer() throws AerospikeException {
+		setUdf(key, packageName, functionName, args);
+	}
+	
+	@Override
+	protected boolean isHedgeable() {
+		return false;
+	}
+
+	/**
+	 * Convert record returned by the server to the user defined function result.
+	 */
+	private static final class ExecuteRecordListener implements RecordListener {
+		private final ExecuteListener listener;
+		
+		private ExecuteRecordListener(ExecuteListener listener) {
+			this.listener = listener;
+		}
+
+		public void onSuccess(Key key, Record record) {
+			Object obj;
+			
+			try {
+				obj = ExecuteCommand.getResult(record);
+			}
+			catch (AerospikeException ae) {
+				listener.onFailure(ae);
+				return;
+			}
+			listener.onSuccess(key, obj);
+		}
+
+		public void onFailure(AerospikeException exception) {
+			listener.onFailure(exception);
+		}
+	}
+}
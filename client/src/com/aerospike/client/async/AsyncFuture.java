@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.async;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Log;
+
+/**
+ * Result of an asynchronous command that can be waited on or composed with completion
+ * listeners.  The future is completed by the selector thread that processed the command.
+ * <p>
+ * Completion listeners registered with a null executor run directly on the selector thread
+ * and must not block.  Pass in an executor to run listeners that block or perform 
+ * significant work.  Futures can not be cancelled.
+ */
+public final class AsyncFuture<T> implements Future<T> {
+	private final CountDownLatch latch = new CountDownLatch(1);
+	private ArrayList<Listener> listeners;
+	private T result;
+	private AerospikeException exception;
+	private boolean done;
+	
+	AsyncFuture() {
+	}
+
+	/**
+	 * Run listener when the command completes.  If the command has already completed,
+	 * the listener is run immediately.
+	 * 
+	 * @param listener				runnable to be called on completion
+	 * @param executor				executor used to run listener. If null, listener is run in the
+	 * 								thread that completed the command, usually a selector thread.
+	 */
+	public void addListener(Runnable listener, Executor executor) {
+		synchronized (this) {
+			if (! done) {
+				if (listeners == null) {
+					listeners = new ArrayList<Listener>(2);
+				}
+				listeners.add(new Listener(listener, executor));
+				return;
+			}
+		}
+		run(listener, executor);
+	}
+	
+	/**
+	 * Wait for command to complete and return result.  Unlike {@link #get()}, command
+	 * errors are thrown directly instead of wrapped in an ExecutionException.
+	 * 
+	 * @return						command result
+	 * @throws AerospikeException	if command fails.  {@link AerospikeException.Cancelled} if the 
+	 * 								waiting thread is interrupted, which keeps its interrupt status.
+	 */
+	public T getResult() throws AerospikeException {
+		try {
+			latch.await();
+		}
+		catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new AerospikeException.Cancelled(ie);
+		}
+		
+		if (exception != null) {
+			throw exception;
+		}
+		return result;
+	}
+
+	/**
+	 * Return command error if the command failed.  Return null if the command succeeded
+	 * or has not completed yet.
+	 */
+	public AerospikeException getException() {
+		return isDone()? exception : null;
+	}
+
+	public T get() throws InterruptedException, ExecutionException {
+		latch.await();
+		return report();
+	}
+
+	public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+		if (! latch.await(timeout, unit)) {
+			throw new TimeoutException();
+		}
+		return report();
+	}
+
+	public boolean isDone() {
+		return latch.getCount() == 0;
+	}
+
+	/**
+	 * Commands can not be cancelled once queued with a selector.  Return false.
+	 */
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		return false;
+	}
+
+	public boolean isCancelled() {
+		return false;
+	}
+
+	final void complete(T result) {
+		ArrayList<Listener> list;
+		
+		synchronized (this) {
+			if (done) {
+				return;
+			}
+			this.result = result;
+			done = true;
+			list = listeners;
+			listeners = null;
+		}
+		latch.countDown();
+		notifyListeners(list);
+	}
+	
+	final void fail(AerospikeException exception) {
+		ArrayList<Listener> list;
+		
+		synchronized (this) {
+			if (done) {
+				return;
+			}
+			this.exception = exception;
+			done = true;
+			list = listeners;
+			listeners = null;
+		}
+		latch.countDown();
+		notifyListeners(list);
+	}
+
+	private T report() throws ExecutionException {
+		if (exception != null) {
+			throw new ExecutionException(exception);
+		}
+		return result;
+	}
+
+	private static void notifyListeners(ArrayList<Listener> list) {
+		if (list != null) {
+			for (Listener listener : list) {
+				run(listener.runnable, listener.executor);
+			}
+		}
+	}
+
+	private static void run(Runnable runnable, Executor executor) {
+		// Listener errors must not escape into the selector thread.
+		try {
+			if (executor == null) {
+				runnable.run();
+			}
+			else {
+				executor.execute(runnable);
+			}
+		}
+		catch (RuntimeException re) {
+			if (Log.warnEnabled()) {
+				Log.warn("Future listener failed: " + re.getMessage());
+			}
+		}
+	}
+	
+	private static final class Listener {
+		private final Runnable runnable;
+		private final Executor executor;
+		
+		private Listener(Runnable runnable, Executor executor) {
+			this.runnable = runnable;
+			this.executor = executor;
+		}
+	}
+}
@@ -22,6 +22,7 @@
 package com.aerospike.client.async;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -31,6 +32,8 @@ import com.aerospike.client.AerospikeException;
 import com.aerospike.client.Key;
 import com.aerospike.client.Record;
 import com.aerospike.client.ResultCode;
+import com.aerospike.client.Log;
+import com.aerospike.client.command.BatchNode;
 import com.aerospike.client.command.Buffer;
 import com.aerospike.client.command.Command;
 import com.aerospike.client.command.FieldType;
@@ -40,7 +43,6 @@ public abstract class AsyncMultiCommand extends AsyncCommand {
 	private final AsyncMultiExecutor parent;
 	private final AsyncNode node;
 	protected final HashSet<String> binNames;
-	protected byte[] receiveBuffer;
 	protected int receiveSize;
 	protected int receiveOffset;
 	protected int resultCode;
@@ -85,14 +87,10 @@ public abstract class AsyncMultiCommand extends AsyncCommand {
 					return;
 		        }
 		        
-		        if (receiveBuffer == null || receiveSize > receiveBuffer.length) {
-		        	receiveBuffer = new byte[receiveSize];
-		        }
+		        // Read entire group into the buffer, so it can be parsed in place.
+		        resizeByteBuffer(receiveSize);
 				byteBuffer.clear();
-	
-				if (receiveSize < byteBuffer.capacity()) {
-					byteBuffer.limit(receiveSize);
-				}
+				byteBuffer.limit(receiveSize);
 				inHeader = false;
 			}
 	
@@ -100,38 +98,31 @@ public abstract class AsyncMultiCommand extends AsyncCommand {
 				return;
 			}
 	
-			// Copy byteBuffer to byte[].
-			byteBuffer.position(0);
-			byteBuffer.get(receiveBuffer, receiveOffset, byteBuffer.limit());
-			receiveOffset += byteBuffer.limit();
+			if (parseGroup()) {
+				finish();
+				return;
+			}
+			
+			// Prepare for next group.
 			byteBuffer.clear();
+			byteBuffer.limit(8);
+			inHeader = true;
 			
-			if (receiveOffset >= receiveSize) {
-				if (parseGroup()) {
-					finish();
-					return;
-				}
-				// Prepare for next group.
-				byteBuffer.limit(8);
-				receiveOffset = 0;
-				inHeader = true;
-			}
-			else {
-				int remaining = receiveSize - receiveOffset;
-					
-				if (remaining < byteBuffer.capacity()) {
-					byteBuffer.limit(remaining);
-				}
+			if (parent.isReadPaused()) {
+				// Consumer has fallen behind.  Leave remaining data in the socket so 
+				// TCP flow control throttles the server until reading is resumed.
+				paused = true;
+				return;
 			}
 		}
 	}
 		
 	private final boolean parseGroup() throws AerospikeException {
-		// Parse each message response and add it to the result array
+		// Parse each message response in place with absolute gets.
 		receiveOffset = 0;
 		
 		while (receiveOffset < receiveSize) {
-			resultCode = receiveBuffer[receiveOffset + 5] & 0xFF;
+			resultCode = byteBuffer.get(receiveOffset + 5) & 0xFF;
 
 			if (resultCode != 0) {
 				if (resultCode == ResultCode.KEY_NOT_FOUND_ERROR) {
@@ -145,66 +136,110 @@ public abstract class AsyncMultiCommand extends AsyncCommand {
 			}
 
 			// If this is the end marker of the response, do not proceed further
-			if ((receiveBuffer[receiveOffset + 3] & Command.INFO3_LAST) != 0) {
+			if ((byteBuffer.get(receiveOffset + 3) & Command.INFO3_LAST) != 0) {
 				return true;
 			}			
-			generation = Buffer.bytesToInt(receiveBuffer, receiveOffset + 6);
-			expiration = Buffer.bytesToInt(receiveBuffer, receiveOffset + 10);
-			fieldCount = Buffer.bytesToShort(receiveBuffer, receiveOffset + 18);
-			opCount = Buffer.bytesToShort(receiveBuffer, receiveOffset + 20);
+			generation = byteBuffer.getInt(receiveOffset + 6);
+			expiration = byteBuffer.getInt(receiveOffset + 10);
+			fieldCount = byteBuffer.getShort(receiveOffset + 18) & 0xFFFF;
+			opCount = byteBuffer.getShort(receiveOffset + 20) & 0xFFFF;
 
 			receiveOffset += Command.MSG_REMAINING_HEADER_SIZE;
-			
-			Key key = parseKey();
-			parseRow(key);
+			parseRow();
 		}
 		return false;
 	}
 
+	/**
+	 * Parse key and record at the current offset.  Commands that correlate 
+	 * responses by digest override this to avoid creating a key.
+	 */
+	protected void parseRow() throws AerospikeException {
+		Key key = parseKey();
+		parseRow(key);
+	}
+
 	protected final Key parseKey() {
 		byte[] digest = null;
 		String namespace = null;
 		String setName = null;
 		
 		for (int i = 0; i < fieldCount; i++) {
-			int fieldlen = Buffer.bytesToInt(receiveBuffer, receiveOffset);
+			int fieldlen = byteBuffer.getInt(receiveOffset);
 			receiveOffset += 4;
 			
-			int fieldtype = receiveBuffer[receiveOffset++];
+			int fieldtype = byteBuffer.get(receiveOffset++);
 			int size = fieldlen - 1;
 			
 			if (fieldtype == FieldType.DIGEST_RIPE) {
 				digest = new byte[size];
-				System.arraycopy(receiveBuffer, receiveOffset, digest, 0, size);
+				Buffer.bufferToBytes(byteBuffer, receiveOffset, digest, 0, size);
 				receiveOffset += size;
 			}
 			else if (fieldtype == FieldType.NAMESPACE) {
-				namespace = new String(receiveBuffer, receiveOffset, size);
+				namespace = Buffer.bufferToUtf8String(byteBuffer, receiveOffset, size);
 				receiveOffset += size;
 			}				
 			else if (fieldtype == FieldType.TABLE) {
-				setName = new String(receiveBuffer, receiveOffset, size);
+				setName = Buffer.bufferToUtf8String(byteBuffer, receiveOffset, size);
 				receiveOffset += size;
 			}				
 		}
 		return new Key(namespace, digest, setName);		
 	}
 	
+	/**
+	 * Skip key fields and return key array position of the returned digest.
+	 * Return -1 if the digest was not requested.  No key is allocated.
+	 */
+	protected final int parseBatchIndex(BatchNode.BatchNamespace batchNamespace) {
+		int index = -1;
+		
+		for (int i = 0; i < fieldCount; i++) {
+			int fieldlen = byteBuffer.getInt(receiveOffset);
+			receiveOffset += 4;
+			
+			int fieldtype = byteBuffer.get(receiveOffset++);
+			int size = fieldlen - 1;
+			
+			if (fieldtype == FieldType.DIGEST_RIPE) {
+				index = batchNamespace.digestTable.get(byteBuffer, receiveOffset, size);
+				
+				if (index < 0 && Log.debugEnabled()) {
+					byte[] digest = new byte[size];
+					Buffer.bufferToBytes(byteBuffer, receiveOffset, digest, 0, size);
+					Log.debug("Unexpected batch key returned: " + batchNamespace.namespace + ',' + Buffer.bytesToHexString(digest));
+				}
+			}
+			receiveOffset += size;
+		}
+		return index;
+	}
+
+	/**
+	 * Move offset past bins of a record that is not returned to the caller.
+	 */
+	protected final void skipRecord() {
+		for (int i = 0 ; i < opCount; i++) {
+			receiveOffset += 4 + byteBuffer.getInt(receiveOffset);
+		}
+	}
+
 	protected Record parseRecordWithDuplicates() throws AerospikeException {
 		
 		Map<String,Object> bins = null;
 		ArrayList<Map<String, Object>> duplicates = null;
 		
 		for (int i = 0 ; i < opCount; i++) {
-			int opSize = Buffer.bytesToInt(receiveBuffer, receiveOffset);
-			byte particleType = receiveBuffer[receiveOffset+5];
-			byte version = receiveBuffer[receiveOffset+6];
-			byte nameSize = receiveBuffer[receiveOffset+7];
-			String name = Buffer.utf8ToString(receiveBuffer, receiveOffset+8, nameSize);
+			int opSize = byteBuffer.getInt(receiveOffset);
+			byte particleType = byteBuffer.get(receiveOffset+5);
+			byte version = byteBuffer.get(receiveOffset+6);
+			byte nameSize = byteBuffer.get(receiveOffset+7);
+			String name = Buffer.bufferToUtf8String(byteBuffer, receiveOffset+8, nameSize);
 			receiveOffset += 4 + 4 + nameSize;
 	
 			int particleBytesSize = (int) (opSize - (4 + nameSize));
-	        Object value = Buffer.bytesToParticle(particleType, receiveBuffer, receiveOffset, particleBytesSize);
+	        Object value = Buffer.bufferToParticle(particleType, byteBuffer, receiveOffset, particleBytesSize);
 			receiveOffset += particleBytesSize;
 	
 			// Currently, the batch command returns all the bins even if a subset of
@@ -257,14 +292,14 @@ public abstract class AsyncMultiCommand extends AsyncCommand {
 		Map<String,Object> bins = null;
 		
 		for (int i = 0 ; i < opCount; i++) {
-			int opSize = Buffer.bytesToInt(receiveBuffer, receiveOffset);
-			byte particleType = receiveBuffer[receiveOffset+5];
-			byte nameSize = receiveBuffer[receiveOffset+7];
-			String name = Buffer.utf8ToString(receiveBuffer, receiveOffset+8, nameSize);
+			int opSize = byteBuffer.getInt(receiveOffset);
+			byte particleType = byteBuffer.get(receiveOffset+5);
+			byte nameSize = byteBuffer.get(receiveOffset+7);
+			String name = Buffer.bufferToUtf8String(byteBuffer, receiveOffset+8, nameSize);
 			receiveOffset += 4 + 4 + nameSize;
 	
 			int particleBytesSize = (int) (opSize - (4 + nameSize));
-	        Object value = Buffer.bytesToParticle(particleType, receiveBuffer, receiveOffset, particleBytesSize);
+	        Object value = Buffer.bufferToParticle(particleType, byteBuffer, receiveOffset, particleBytesSize);
 			receiveOffset += particleBytesSize;
 
 			if (bins == null) {
@@ -275,6 +310,11 @@ public abstract class AsyncMultiCommand extends AsyncCommand {
 	    return new Record(bins, null, generation, expiration);	    
 	}
 	
+	@Override
+	protected void readPaused() {
+		parent.readPaused(this);
+	}
+
 	@Override
 	protected void onSuccess() {
 		parent.childSuccess();
@@ -285,5 +325,7 @@ public abstract class AsyncMultiCommand extends AsyncCommand {
 		parent.childFailure(e);
 	}
 
-	protected abstract void parseRow(Key key) throws AerospikeException;
+	protected void parseRow(Key key) throws AerospikeException {
+		throw new AerospikeException.Parse("Unexpected keyed row");
+	}
 }
@@ -30,12 +30,57 @@ public abstract class AsyncMultiExecutor {
 	private final AtomicInteger completedCount = new AtomicInteger();
 	protected int completedSize;
 	private boolean failed;
+	private AsyncMultiCommand[] commands;
+	private int nextCommand;
 	
+	/**
+	 * Start child commands, running at most maxConcurrent commands at a time.
+	 * When a command completes, the next command is started.  
+	 * Zero maxConcurrent runs all commands in parallel.
+	 */
+	protected final void execute(AsyncMultiCommand[] commands, int maxConcurrent) throws AerospikeException {
+		int max = (maxConcurrent == 0 || maxConcurrent >= commands.length)? commands.length : maxConcurrent;
+		
+		synchronized (this) {
+			this.commands = commands;
+			this.completedSize = commands.length;
+			this.nextCommand = max;
+		}
+		
+		for (int i = 0; i < max; i++) {
+			commands[i].execute();
+		}
+	}
+
 	protected final void childSuccess() {
 		int count = completedCount.incrementAndGet();
 		
-		if (!failed && count >= completedSize) {
-			onSuccess();
+		if (!failed) {
+			if (count >= completedSize) {
+				onSuccess();
+			}
+			else {
+				executeNext();
+			}
+		}
+	}
+	
+	private void executeNext() {
+		AsyncMultiCommand command = null;
+		
+		synchronized (this) {
+			if (commands != null && nextCommand < commands.length) {
+				command = commands[nextCommand++];
+			}
+		}
+		
+		if (command != null) {
+			try {
+				command.execute();
+			}
+			catch (AerospikeException ae) {
+				childFailure(ae);
+			}
 		}
 	}
 	
@@ -45,6 +90,22 @@ public abstract class AsyncMultiExecutor {
 		onFailure(ae);
 	}
 	
+	/**
+	 * Return true if child commands should stop reading from their sockets
+	 * because the consumer has not kept up.
+	 */
+	protected boolean isReadPaused() {
+		return false;
+	}
+	
+	/**
+	 * Child command has stopped reading.  Implementations must eventually call
+	 * {@link AsyncCommand#scheduleResume()} to continue.
+	 */
+	protected void readPaused(AsyncMultiCommand command) {
+		command.scheduleResume();
+	}
+
 	protected abstract void onSuccess();
 	protected abstract void onFailure(AerospikeException ae);
 }
@@ -32,8 +32,13 @@ import com.aerospike.client.cluster.NodeValidator;
  */
 public final class AsyncNode extends Node {
 
-	private final ArrayBlockingQueue<AsyncConnection> asyncConnQueue;
+	// One connection pool per transport event loop.  A connection's channel stays registered
+	// on the event loop that created it, so commands only change its interest ops and attachment.
+	private final ArrayBlockingQueue<AsyncConnection>[] asyncConnQueues;
 	private final AsyncCluster cluster;
+	
+	// Adaptive limit on concurrent commands sent to this node.  Null when disabled.
+	private final AdaptiveLimiter limiter;
 
 	/**
 	 * Initialize server node with connection parameters.
@@ -41,35 +46,56 @@ public final class AsyncNode extends Node {
 	 * @param cluster			collection of active server nodes 
 	 * @param nv				connection parameters
 	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
 	public AsyncNode(AsyncCluster cluster, NodeValidator nv) {
 		super(cluster, nv);
 		this.cluster = cluster;
-		asyncConnQueue = new ArrayBlockingQueue<AsyncConnection>(cluster.getMaxCommands());
+		this.limiter = cluster.createLimiter();
+		
+		int count = cluster.getTransport().size();
+		int capacity = Math.max((cluster.getMaxCommands() + count - 1) / count, 1);
+		asyncConnQueues = new ArrayBlockingQueue[count];
+		
+		for (int i = 0; i < count; i++) {
+			asyncConnQueues[i] = new ArrayBlockingQueue<AsyncConnection>(capacity);
+		}
 	}
 	
 	/**
 	 * Get asynchronous socket connection from connection pool for the server node.
+	 * The event loop is chosen first and only that event loop's pool is searched.
 	 */
 	public AsyncConnection getAsyncConnection() throws AerospikeException.Connection {
+		AsyncTransport transport = cluster.getTransport();
+		int index = transport.next();
+		ArrayBlockingQueue<AsyncConnection> queue = asyncConnQueues[index];
+		
 		// Try to find connection in pool.
 		AsyncConnection conn;
 
-		while ((conn = asyncConnQueue.poll()) != null) {		
+		while ((conn = queue.poll()) != null) {		
 			if (conn.isValid()) {
 				return conn;
 			}
 			conn.close();
 		}
-		return new AsyncConnection(address, cluster);
+		return transport.createConnection(address, cluster, index);
+	}
+	
+	/**
+	 * Return adaptive command limiter or null if adaptive limits are disabled.
+	 */
+	public AdaptiveLimiter getLimiter() {
+		return limiter;
 	}
 	
 	/**
-	 * Put asynchronous connection back into connection pool.
+	 * Put asynchronous connection back into the connection pool of its event loop.
 	 * 
 	 * @param conn				socket connection
 	 */
 	public void putAsyncConnection(AsyncConnection conn) {
-		if (! active || ! asyncConnQueue.offer(conn)) {
+		if (! active || ! asyncConnQueues[conn.getIndex()].offer(conn)) {
 			conn.close();
 		}
 	}
@@ -81,9 +107,12 @@ public final class AsyncNode extends Node {
 	protected void closeConnections() {
 		super.closeConnections();
 		
-		AsyncConnection conn;
-		while ((conn = asyncConnQueue.poll()) != null) {			
-			conn.close();
+		for (ArrayBlockingQueue<AsyncConnection> queue : asyncConnQueues) {
+			AsyncConnection conn;
+			
+			while ((conn = queue.poll()) != null) {			
+				conn.close();
+			}
 		}
 	}
 }
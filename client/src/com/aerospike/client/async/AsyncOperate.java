@@ -41,4 +41,9 @@ public final class AsyncOperate extends AsyncRead {
 	protected void writeBuffer() throws AerospikeException {
 		setOperate(policy, key, operations);
 	}
+	
+	@Override
+	protected boolean isHedgeable() {
+		return false;
+	}
 }
@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.async;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.listener.RecordSequenceListener;
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.query.Statement;
+
+public final class AsyncQuery extends AsyncMultiCommand {
+	private final Policy policy;
+	private final RecordSequenceListener listener;
+	private final Statement statement;
+	
+	public AsyncQuery(
+		AsyncMultiExecutor parent,
+		AsyncCluster cluster,
+		AsyncNode node,
+		Policy policy,
+		RecordSequenceListener listener,
+		Statement statement
+	) {
+		super(parent, cluster, node, true);
+		this.policy = policy;
+		this.listener = listener;
+		this.statement = statement;
+	}
+		
+	@Override
+	protected Policy getPolicy() {
+		return policy;
+	}
+
+	@Override
+	protected void writeBuffer() throws AerospikeException {
+		setQuery(policy, statement);
+	}
+
+	@Override
+	protected void parseRow(Key key) throws AerospikeException {		
+		Record record = parseRecord();
+		listener.onRecord(key, record);
+	}
+}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.async;
+
+import org.luaj.vm2.LuaValue;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.command.Buffer;
+import com.aerospike.client.lua.LuaInstance;
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.query.Statement;
+import com.aerospike.client.util.ThreadLocalData;
+
+public final class AsyncQueryAggregate extends AsyncMultiCommand {
+	private final AsyncQueryAggregateExecutor parent;
+	private final Policy policy;
+	private final Statement statement;
+	private final LuaInstance lua;
+	
+	public AsyncQueryAggregate(
+		AsyncQueryAggregateExecutor parent,
+		AsyncCluster cluster,
+		AsyncNode node,
+		Policy policy,
+		Statement statement,
+		LuaInstance lua
+	) {
+		super(parent, cluster, node, true);
+		this.parent = parent;
+		this.policy = policy;
+		this.statement = statement;
+		this.lua = lua;
+	}
+		
+	@Override
+	protected Policy getPolicy() {
+		return policy;
+	}
+
+	@Override
+	protected void writeBuffer() throws AerospikeException {
+		setQuery(policy, statement);
+	}
+
+	@Override
+	protected void parseRow(Key key) throws AerospikeException {		
+		if (opCount != 1) {
+			throw new AerospikeException("Query aggregate expected exactly one bin.  Received " + opCount);
+		}
+
+		// Parse aggregateValue.
+		int opSize = byteBuffer.getInt(receiveOffset);
+		byte particleType = byteBuffer.get(receiveOffset + 5);
+		byte nameSize = byteBuffer.get(receiveOffset + 7);
+		String name = Buffer.bufferToUtf8String(byteBuffer, receiveOffset + 8, nameSize);
+		receiveOffset += 4 + 4 + nameSize;
+
+		int particleBytesSize = (int) (opSize - (4 + nameSize));
+		byte[] buf = ThreadLocalData.getBuffer();
+		
+		if (particleBytesSize > buf.length) {
+			buf = ThreadLocalData.resizeBuffer(particleBytesSize);
+		}
+		Buffer.bufferToBytes(byteBuffer, receiveOffset, buf, 0, particleBytesSize);
+		receiveOffset += particleBytesSize;
+		
+		if (! name.equals("SUCCESS")) {
+			throw new AerospikeException("Query aggregate expected bin name SUCCESS.  Received " + name);
+		}
+		
+		LuaValue aggregateValue = lua.getValue(particleType, buf, 0, particleBytesSize);
+		parent.put(aggregateValue);
+	}
+}
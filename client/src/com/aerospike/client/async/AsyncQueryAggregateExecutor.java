@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.async;
+
+import java.util.ArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.luaj.vm2.LuaError;
+import org.luaj.vm2.LuaInteger;
+import org.luaj.vm2.LuaValue;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.Value;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.listener.ResultSequenceListener;
+import com.aerospike.client.lua.LuaCache;
+import com.aerospike.client.lua.LuaInputStream;
+import com.aerospike.client.lua.LuaInstance;
+import com.aerospike.client.lua.LuaOutputStream;
+import com.aerospike.client.policy.QueryPolicy;
+import com.aerospike.client.query.Statement;
+
+/**
+ * Asynchronous query aggregation.  Node commands run on the async transport and queue
+ * server results for the client side aggregation function, which runs on a cluster
+ * thread pool thread because Lua streams pull their input.  When the number of queued 
+ * values reaches the policy's recordQueueSize, node commands stop reading from their sockets 
+ * after the current group.  Reading resumes when the queue falls below half that size.
+ */
+public final class AsyncQueryAggregateExecutor extends AsyncMultiExecutor implements Runnable {
+	private final ResultSequenceListener listener;
+	private final Statement statement;
+	private final LuaInstance lua;
+	private final InputQueue inputQueue = new InputQueue();
+	private final int highWater;
+	private final int lowWater;
+	private final ArrayList<AsyncMultiCommand> pausedCommands = new ArrayList<AsyncMultiCommand>();
+	private final AtomicInteger pausedCount = new AtomicInteger();
+	private final AtomicBoolean notified = new AtomicBoolean();
+	private volatile AerospikeException exception;
+
+	public AsyncQueryAggregateExecutor(
+		AsyncCluster cluster,
+		QueryPolicy policy,
+		ResultSequenceListener listener,
+		Statement statement,
+		String packageName,
+		String functionName,
+		Value[] functionArgs
+	) throws AerospikeException {
+		this.listener = listener;
+		this.statement = statement;
+		this.highWater = Math.max(policy.recordQueueSize, 1);
+		this.lowWater = Math.max(highWater / 2, 1);
+		policy.maxRetries = 0; // Retry policy must be one-shot for queries.
+		statement.setAggregateFunction(packageName, functionName, functionArgs, true);
+
+		Node[] nodes = cluster.getNodes();
+		if (nodes.length == 0) {
+			throw new AerospikeException(ResultCode.SERVER_NOT_AVAILABLE, "Query failed because cluster is empty.");
+		}
+		
+		// Work around luaj LuaInteger static initialization bug.
+		// See QueryAggregateExecutor.
+		LuaValue.valueOf(0);
+		lua = LuaCache.getInstance();
+
+		AsyncQueryAggregate[] commands = new AsyncQueryAggregate[nodes.length];
+		
+		for (int i = 0; i < nodes.length; i++) {			
+			commands[i] = new AsyncQueryAggregate(this, cluster, (AsyncNode)nodes[i], policy, statement, lua);
+		}
+		
+		// Start Lua thread which reads from the input queue, applies aggregate function and 
+		// sends results to the listener.
+		cluster.getThreadPool().execute(this);
+		
+		try {
+			execute(commands, policy.maxConcurrentNodes);
+		}
+		catch (AerospikeException ae) {
+			// Caller receives the exception.  Stop Lua thread without notifying listener.
+			notified.set(true);
+			stop(ae);
+			throw ae;
+		}
+	}
+	
+	public void run() {
+		try {
+			lua.load(statement.getPackageName(), false);
+			
+			LuaValue[] args = new LuaValue[4 + statement.getFunctionArgs().length];
+			args[0] = lua.getFunction(statement.getFunctionName());
+			args[1] = LuaInteger.valueOf(2);
+			args[2] = new LuaInputStream(inputQueue);
+			args[3] = new LuaOutputStream(listener);
+			int count = 4;
+			
+			for (Value value : statement.getFunctionArgs()) {
+				args[count++] = value.getLuaValue();
+			}
+			lua.call("apply_stream", args);
+		}
+		catch (LuaError le) {
+			Throwable cause = le.getCause();
+			stop((cause instanceof AerospikeException)? (AerospikeException)cause : new AerospikeException(le));
+		}
+		catch (AerospikeException ae) {
+			stop(ae);
+		}
+		catch (Exception e) {
+			stop(new AerospikeException(e));
+		}
+		finally {			
+			LuaCache.putInstance(lua);
+		}
+		
+		if (notified.compareAndSet(false, true)) {
+			if (exception != null) {
+				listener.onFailure(exception);
+			}
+			else {
+				listener.onSuccess();
+			}
+		}
+	}
+
+	/**
+	 * Queue server result for the aggregation function.  Called by node commands.
+	 */
+	void put(LuaValue value) throws AerospikeException {
+		if (exception != null) {
+			throw new AerospikeException.QueryTerminated();
+		}
+		
+		// NIL marks the end of the input stream.
+		if (value != null && value != LuaValue.NIL) {
+			inputQueue.offer(value);
+		}
+	}
+
+	@Override
+	protected boolean isReadPaused() {
+		return inputQueue.size() >= highWater;
+	}
+
+	@Override
+	protected void readPaused(AsyncMultiCommand command) {
+		synchronized (pausedCommands) {
+			pausedCommands.add(command);
+			pausedCount.set(pausedCommands.size());
+		}
+
+		// Lua thread may have caught up while this command was pausing.
+		if (inputQueue.size() < lowWater || exception != null) {
+			resumeCommands();
+		}
+	}
+
+	@Override
+	protected void onSuccess() {
+		// Send end command to Lua thread.
+		inputQueue.offer(LuaValue.NIL);
+	}
+	
+	@Override
+	protected void onFailure(AerospikeException ae) {
+		stop(ae);
+	}
+	
+	private void stop(AerospikeException ae) {
+		synchronized (this) {
+			if (exception != null) {
+				return;
+			}
+			exception = ae;
+		}
+		
+		// Discard pending input and end Lua stream.  Paused commands must read again 
+		// to notice the failure and close their sockets.
+		inputQueue.clear();
+		inputQueue.offer(LuaValue.NIL);
+		resumeCommands();
+	}
+	
+	private void resumeCommands() {
+		AsyncMultiCommand[] commands;
+		
+		synchronized (pausedCommands) {
+			if (pausedCommands.size() == 0) {
+				return;
+			}
+			commands = pausedCommands.toArray(new AsyncMultiCommand[pausedCommands.size()]);
+			pausedCommands.clear();
+			pausedCount.set(0);
+		}
+		
+		for (AsyncMultiCommand command : commands) {
+			command.scheduleResume();
+		}
+	}
+	
+	/**
+	 * Input queue that resumes paused node commands as the Lua thread drains it.
+	 */
+	private final class InputQueue extends LinkedBlockingQueue<LuaValue> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public LuaValue take() throws InterruptedException {
+			LuaValue value = super.take();
+			
+			if (pausedCount.get() > 0 && size() < lowWater) {
+				resumeCommands();
+			}
+			return value;
+		}
+	}
+}
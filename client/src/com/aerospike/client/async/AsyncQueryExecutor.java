@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.async;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.listener.RecordSequenceListener;
+import com.aerospike.client.policy.QueryPolicy;
+import com.aerospike.client.query.Statement;
+
+public final class AsyncQueryExecutor extends AsyncMultiExecutor {
+	private final RecordSequenceListener listener;
+
+	public AsyncQueryExecutor(
+		AsyncCluster cluster,
+		QueryPolicy policy,
+		RecordSequenceListener listener,
+		Statement statement
+	) throws AerospikeException {
+		this.listener = listener;
+		policy.maxRetries = 0; // Retry policy must be one-shot for queries.
+
+		Node[] nodes = cluster.getNodes();
+		if (nodes.length == 0) {
+			throw new AerospikeException(ResultCode.SERVER_NOT_AVAILABLE, "Query failed because cluster is empty.");
+		}
+
+		AsyncQuery[] commands = new AsyncQuery[nodes.length];
+		
+		for (int i = 0; i < nodes.length; i++) {			
+			commands[i] = new AsyncQuery(this, cluster, (AsyncNode)nodes[i], policy, listener, statement);
+		}
+		execute(commands, policy.maxConcurrentNodes);
+	}
+	
+	protected void onSuccess() {
+		listener.onSuccess();
+	}
+	
+	protected void onFailure(AerospikeException ae) {
+		listener.onFailure(ae);
+	}		
+}
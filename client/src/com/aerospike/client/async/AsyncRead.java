@@ -25,6 +25,8 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.aerospike.client.AerospikeException;
 import com.aerospike.client.Key;
@@ -34,13 +36,13 @@ import com.aerospike.client.command.Buffer;
 import com.aerospike.client.command.Command;
 import com.aerospike.client.listener.RecordListener;
 import com.aerospike.client.policy.Policy;
-import com.aerospike.client.util.ThreadLocalData;
 
 public class AsyncRead extends AsyncSingleCommand {
 	private final Policy policy;
 	private final RecordListener listener;
 	private final String[] binNames;
 	private Record record;
+	private HedgeState hedgeState;
 	
 	public AsyncRead(AsyncCluster cluster, Policy policy, RecordListener listener, Key key, String[] binNames) {
 		super(cluster, key);
@@ -48,6 +50,55 @@ public class AsyncRead extends AsyncSingleCommand {
 		this.listener = listener;
 		this.binNames = binNames;
 	}
+	
+	@Override
+	public void execute() throws AerospikeException {
+		int delay = policy.hedgeDelay;
+		
+		if (delay > 0 && (policy.timeout <= 0 || delay < policy.timeout) && isHedgeable()) {
+			hedgeState = new HedgeState(this);
+			hedgeLimit = System.currentTimeMillis() + delay;
+		}
+		super.execute();
+	}
+	
+	/**
+	 * Can read be sent to more than one node.  Commands that may write are not hedged.
+	 */
+	protected boolean isHedgeable() {
+		return true;
+	}
+
+	@Override
+	protected final void hedge() {
+		HedgeState state = hedgeState;
+		
+		if (state == null || state.delivered.get() || ! state.hedged.compareAndSet(false, true)) {
+			return;
+		}
+		
+		AsyncNode prole = getProleNode();
+		
+		if (prole == null || prole == node) {
+			return;
+		}
+		
+		AsyncRead hedge = new AsyncRead(cluster, policy, listener, key, binNames);
+		hedge.useProle();
+		hedge.hedgeState = state;
+		state.hedge = hedge;
+		state.outstanding.incrementAndGet();
+		
+		if (! executeHedge(hedge)) {
+			state.hedgeAborted();
+			return;
+		}
+		
+		if (state.delivered.get()) {
+			// Original request completed while hedge was starting.
+			hedge.cancel();
+		}
+	}
 
 	@Override
 	protected Policy getPolicy() {
@@ -60,20 +111,12 @@ public class AsyncRead extends AsyncSingleCommand {
 	}
 
 	protected final void parseResult(ByteBuffer byteBuffer) throws AerospikeException {
-		dataBuffer = ThreadLocalData.getBuffer();
-		
-		if (receiveSize > dataBuffer.length) {
-			dataBuffer = ThreadLocalData.resizeBuffer(receiveSize);
-		}
-		// Copy entire message to dataBuffer.
-		byteBuffer.position(0);
-		byteBuffer.get(dataBuffer, 0, receiveSize);
-			
-		int resultCode = dataBuffer[5] & 0xFF;
-		int generation = Buffer.bytesToInt(dataBuffer, 6);
-		int expiration = Buffer.bytesToInt(dataBuffer, 10);
-		int fieldCount = Buffer.bytesToShort(dataBuffer, 18);
-		int opCount = Buffer.bytesToShort(dataBuffer, 20);
+		// Parse message in place with absolute gets.  Do not copy to a heap buffer.
+		int resultCode = byteBuffer.get(5) & 0xFF;
+		int generation = byteBuffer.getInt(6);
+		int expiration = byteBuffer.getInt(10);
+		int fieldCount = byteBuffer.getShort(18) & 0xFFFF;
+		int opCount = byteBuffer.getShort(20) & 0xFFFF;
 		dataOffset = Command.MSG_REMAINING_HEADER_SIZE;
 		        
         if (resultCode == 0) {
@@ -82,7 +125,7 @@ public class AsyncRead extends AsyncSingleCommand {
             	record = new Record(null, null, generation, expiration);
             }
             else {
-            	record = parseRecord(opCount, fieldCount, generation, expiration);
+            	record = parseRecord(byteBuffer, opCount, fieldCount, generation, expiration);
             }
         }
         else {
@@ -96,6 +139,7 @@ public class AsyncRead extends AsyncSingleCommand {
 	}
 		
 	private final Record parseRecord(
+		ByteBuffer byteBuffer,
 		int opCount, 
 		int fieldCount, 
 		int generation,
@@ -109,23 +153,23 @@ public class AsyncRead extends AsyncSingleCommand {
 		if (fieldCount != 0) {
 			// Just skip over all the fields
 			for (int i = 0; i < fieldCount; i++) {
-				int fieldSize = Buffer.bytesToInt(dataBuffer, dataOffset);
+				int fieldSize = byteBuffer.getInt(dataOffset);
 				dataOffset += 4 + fieldSize;
 			}
 		}
 	
 		for (int i = 0 ; i < opCount; i++) {
-			int opSize = Buffer.bytesToInt(dataBuffer, dataOffset);
-			byte particleType = dataBuffer[dataOffset+5];
-			byte version = dataBuffer[dataOffset+6];
-			byte nameSize = dataBuffer[dataOffset+7];
-			String name = Buffer.utf8ToString(dataBuffer, dataOffset+8, nameSize);
+			int opSize = byteBuffer.getInt(dataOffset);
+			byte particleType = byteBuffer.get(dataOffset+5);
+			byte version = byteBuffer.get(dataOffset+6);
+			byte nameSize = byteBuffer.get(dataOffset+7);
+			String name = Buffer.bufferToUtf8String(byteBuffer, dataOffset+8, nameSize);
 			dataOffset += 4 + 4 + nameSize;
 	
 			int particleBytesSize = (int) (opSize - (4 + nameSize));
 	        Object value = null;
 	        
-			value = Buffer.bytesToParticle(particleType, dataBuffer, dataOffset, particleBytesSize);
+			value = Buffer.bufferToParticle(particleType, byteBuffer, dataOffset, particleBytesSize);
 			dataOffset += particleBytesSize;
 	
 			Map<String,Object> vmap = null;
@@ -170,12 +214,73 @@ public class AsyncRead extends AsyncSingleCommand {
 	}
 
 	protected final void onSuccess() {
+		HedgeState state = hedgeState;
+		
+		if (state != null && ! state.succeeded(this)) {
+			return;
+		}
+		
 		if (listener != null) {
 			listener.onSuccess(key, record);
 		}
 	}
 
 	protected final void onFailure(AerospikeException e) {
+		HedgeState state = hedgeState;
+		
+		if (state != null && ! state.failed(e)) {
+			return;
+		}
+
+		if (listener != null) {
+			listener.onFailure(e);
+		}
+	}
+	
+	/**
+	 * Coordinates the original and hedge requests of a hedged read.  The first success 
+	 * is delivered and the other request is cancelled.  A failure is only delivered 
+	 * when no other request is outstanding.
+	 */
+	private static final class HedgeState {
+		private final AsyncRead original;
+		private volatile AsyncRead hedge;
+		private volatile AerospikeException failure;
+		private final AtomicInteger outstanding = new AtomicInteger(1);
+		private final AtomicBoolean delivered = new AtomicBoolean();
+		private final AtomicBoolean hedged = new AtomicBoolean();
+		
+		private HedgeState(AsyncRead original) {
+			this.original = original;
+		}
+		
+		private boolean succeeded(AsyncRead command) {
+			if (! delivered.compareAndSet(false, true)) {
+				return false;
+			}
+			
+			AsyncRead other = (command == original)? hedge : original;
+			
+			if (other != null) {
+				other.cancel();
+			}
+			return true;
+		}
+		
+		private boolean failed(AerospikeException e) {
+			failure = e;
+			return outstanding.decrementAndGet() == 0 && delivered.compareAndSet(false, true);
+		}
+		
+		private void hedgeAborted() {
+			if (outstanding.decrementAndGet() == 0 && delivered.compareAndSet(false, true)) {
+				// Original request has already failed.  Deliver its failure now.
+				original.listenerFailure(failure);
+			}
+		}
+	}
+	
+	private void listenerFailure(AerospikeException e) {
 		if (listener != null) {
 			listener.onFailure(e);
 		}
@@ -0,0 +1,298 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.async;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.Log;
+import com.aerospike.client.Record;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.listener.RecordPublisher;
+import com.aerospike.client.listener.RecordSequenceListener;
+import com.aerospike.client.listener.RecordSubscriber;
+import com.aerospike.client.listener.RecordSubscription;
+import com.aerospike.client.policy.ScanPolicy;
+import com.aerospike.client.query.KeyRecord;
+
+/**
+ * Scan publisher that sends records only as fast as the subscriber requests them.
+ * When the number of received but undelivered records reaches the policy's recordQueueSize,
+ * each node command stops reading from its socket after the current group.  Reading resumes
+ * when the queue falls below half that size.
+ */
+public final class AsyncScanPublisher extends AsyncMultiExecutor implements RecordPublisher, RecordSubscription {
+	private final AsyncCluster cluster;
+	private final ScanPolicy policy;
+	private final String namespace;
+	private final String setName;
+	private final String[] binNames;
+	private final int highWater;
+	private final int lowWater;
+	private final AtomicBoolean subscribed = new AtomicBoolean();
+	private final ConcurrentLinkedQueue<KeyRecord> queue = new ConcurrentLinkedQueue<KeyRecord>();
+	private final AtomicInteger queued = new AtomicInteger();
+	private final AtomicLong requested = new AtomicLong();
+	private final AtomicInteger wip = new AtomicInteger();
+	private final ArrayList<AsyncMultiCommand> pausedCommands = new ArrayList<AsyncMultiCommand>();
+	private final AtomicInteger pausedCount = new AtomicInteger();
+	private RecordSubscriber subscriber;
+	private volatile AerospikeException exception;
+	private volatile boolean done;
+	private volatile boolean cancelled;
+	private boolean terminated;
+
+	public AsyncScanPublisher(
+		AsyncCluster cluster,
+		ScanPolicy policy,
+		String namespace,
+		String setName,
+		String[] binNames
+	) {
+		this.cluster = cluster;
+		this.policy = policy;
+		this.namespace = namespace;
+		this.setName = setName;
+		this.binNames = binNames;
+		this.highWater = Math.max(policy.recordQueueSize, 1);
+		this.lowWater = Math.max(highWater / 2, 1);
+	}
+	
+	public void subscribe(RecordSubscriber subscriber) {
+		if (! subscribed.compareAndSet(false, true)) {
+			subscriber.onSubscribe(new EmptySubscription());
+			subscriber.onError(new AerospikeException("Scan publisher supports only one subscriber"));
+			return;
+		}
+		this.subscriber = subscriber;
+		subscriber.onSubscribe(this);
+		
+		Node[] nodes = cluster.getNodes();
+		
+		if (nodes.length == 0) {
+			onFailure(new AerospikeException(ResultCode.SERVER_NOT_AVAILABLE, "Scan failed because cluster is empty."));
+			return;
+		}
+		
+		completedSize = nodes.length;
+		RecordQueue listener = new RecordQueue();
+
+		try {
+			for (Node node : nodes) {			
+				AsyncScan async = new AsyncScan(this, cluster, (AsyncNode)node, policy, listener, namespace, setName, binNames);
+				async.execute();
+			}
+		}
+		catch (AerospikeException ae) {
+			onFailure(ae);
+		}
+	}
+	
+	public void request(long n) {
+		if (n <= 0) {
+			onFailure(new AerospikeException("Scan subscription request must be positive: " + n));
+			return;
+		}
+		
+		while (true) {
+			long current = requested.get();
+			
+			if (current == Long.MAX_VALUE) {
+				break;
+			}
+			
+			long next = current + n;
+			
+			if (next < 0) {
+				next = Long.MAX_VALUE;
+			}
+
+			if (requested.compareAndSet(current, next)) {
+				break;
+			}
+		}
+		drain();
+	}
+	
+	public void cancel() {
+		cancelled = true;
+		
+		// Paused commands must read again to notice the cancel and close their sockets.
+		resumeCommands();
+		drain();
+	}
+
+	@Override
+	protected boolean isReadPaused() {
+		return queued.get() >= highWater;
+	}
+
+	@Override
+	protected void readPaused(AsyncMultiCommand command) {
+		synchronized (pausedCommands) {
+			pausedCommands.add(command);
+			pausedCount.set(pausedCommands.size());
+		}
+
+		// Consumer may have caught up while this command was pausing.
+		if (queued.get() < lowWater || cancelled || exception != null) {
+			resumeCommands();
+		}
+	}
+
+	@Override
+	protected void onSuccess() {
+		done = true;
+		drain();
+	}
+	
+	@Override
+	protected void onFailure(AerospikeException ae) {
+		if (exception == null) {
+			exception = ae;
+		}
+		resumeCommands();
+		drain();
+	}
+	
+	private void onRecord(Key key, Record record) throws AerospikeException {
+		if (cancelled || exception != null) {
+			// Stop reading from this node.
+			throw new AerospikeException.ScanTerminated();
+		}
+		queue.offer(new KeyRecord(key, record));
+		queued.incrementAndGet();
+		drain();
+	}
+	
+	private void resumeCommands() {
+		AsyncMultiCommand[] commands;
+		
+		synchronized (pausedCommands) {
+			if (pausedCommands.size() == 0) {
+				return;
+			}
+			commands = pausedCommands.toArray(new AsyncMultiCommand[pausedCommands.size()]);
+			pausedCommands.clear();
+			pausedCount.set(0);
+		}
+		
+		for (AsyncMultiCommand command : commands) {
+			command.scheduleResume();
+		}
+	}
+	
+	/**
+	 * Deliver queued records up to the requested amount.  Only one thread delivers at a time, 
+	 * so subscriber signals are serialized.  Other threads record that more work is pending.
+	 */
+	private void drain() {
+		if (wip.getAndIncrement() != 0) {
+			return;
+		}
+		int missed = 1;
+		
+		do {
+			if (terminated || cancelled) {
+				terminated = true;
+				queue.clear();
+			}
+			else {
+				try {
+					deliver();
+				}
+				catch (RuntimeException re) {
+					// Subscriber violated the contract.  Treat as cancel.
+					if (Log.warnEnabled()) {
+						Log.warn("Scan subscriber failed: " + re.getMessage());
+					}
+					terminated = true;
+					cancelled = true;
+					queue.clear();
+					resumeCommands();
+				}
+			}
+			missed = wip.addAndGet(-missed);
+		} while (missed != 0);
+	}
+	
+	private void deliver() {
+		long limit = requested.get();
+		long count = 0;
+		KeyRecord record;
+		
+		while (count != limit && exception == null && (record = queue.poll()) != null) {
+			queued.decrementAndGet();
+			subscriber.onNext(record);
+			count++;
+		}
+		
+		if (count > 0 && limit != Long.MAX_VALUE) {
+			requested.addAndGet(-count);
+		}
+		
+		if (exception != null) {
+			terminated = true;
+			queue.clear();
+			subscriber.onError(exception);
+			return;
+		}
+		
+		if (done && queue.isEmpty()) {
+			terminated = true;
+			subscriber.onComplete();
+			return;
+		}
+
+		if (pausedCount.get() > 0 && queued.get() < lowWater) {
+			resumeCommands();
+		}
+	}
+	
+	private final class RecordQueue implements RecordSequenceListener {
+		public void onRecord(Key key, Record record) throws AerospikeException {
+			AsyncScanPublisher.this.onRecord(key, record);
+		}
+
+		public void onSuccess() {
+			AsyncScanPublisher.this.onSuccess();
+		}
+
+		public void onFailure(AerospikeException ae) {
+			AsyncScanPublisher.this.onFailure(ae);
+		}
+	}
+	
+	private static final class EmptySubscription implements RecordSubscription {
+		public void request(long n) {
+		}
+
+		public void cancel() {
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.async;
+
+import java.util.Random;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.Value;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.listener.ExecuteTaskListener;
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.query.Statement;
+import com.aerospike.client.task.ExecuteTask;
+
+public final class AsyncServerExecutor extends AsyncMultiExecutor {
+	private final AsyncCluster cluster;
+	private final ExecuteTaskListener listener;
+	private final Statement statement;
+
+	public AsyncServerExecutor(
+		AsyncCluster cluster,
+		Policy policy,
+		ExecuteTaskListener listener,
+		Statement statement,
+		String packageName, 
+		String functionName, 
+		Value[] functionArgs
+	) throws AerospikeException {
+		this.cluster = cluster;
+		this.listener = listener;
+		this.statement = statement;
+		statement.setAggregateFunction(packageName, functionName, functionArgs, false);
+		
+		if (statement.getTaskId() == 0) {
+			Random r = new Random();
+			statement.setTaskId(r.nextInt(Integer.MAX_VALUE));
+		}
+
+		Node[] nodes = cluster.getNodes();
+		if (nodes.length == 0) {
+			throw new AerospikeException(ResultCode.SERVER_NOT_AVAILABLE, "Command failed because cluster is empty.");
+		}
+
+		AsyncServer[] commands = new AsyncServer[nodes.length];
+		
+		for (int i = 0; i < nodes.length; i++) {			
+			commands[i] = new AsyncServer(this, cluster, (AsyncNode)nodes[i], policy, statement);
+		}
+		execute(commands, 0);
+	}
+	
+	protected void onSuccess() {
+		if (listener != null) {
+			listener.onSuccess(new ExecuteTask(cluster, statement));
+		}
+	}
+	
+	protected void onFailure(AerospikeException ae) {
+		if (listener != null) {
+			listener.onFailure(ae);
+		}
+	}		
+}
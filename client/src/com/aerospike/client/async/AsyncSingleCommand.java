@@ -32,6 +32,7 @@ public abstract class AsyncSingleCommand extends AsyncCommand {
 	protected final Key key;
 	private final Partition partition;
 	protected int receiveSize;
+	private boolean useProle;
 	
 	public AsyncSingleCommand(AsyncCluster cluster, Key key) {
 		super(cluster);
@@ -40,9 +41,36 @@ public abstract class AsyncSingleCommand extends AsyncCommand {
 	}
 	
 	protected final AsyncNode getNode() throws AerospikeException.InvalidNode {	
+		if (useProle) {
+			AsyncNode node = getProleNode();
+			
+			if (node == null) {
+				throw new AerospikeException.InvalidNode();
+			}
+			return node;
+		}
 		return (AsyncNode)cluster.getNode(partition);
 	}
 	
+	/**
+	 * Return prole (replica) node for key's partition or null if not known.
+	 */
+	protected final AsyncNode getProleNode() {
+		return (AsyncNode)cluster.getProleNode(partition);
+	}
+	
+	/**
+	 * Send command to prole node instead of master node.
+	 */
+	protected final void useProle() {
+		useProle = true;
+	}
+	
+	@Override
+	protected final boolean sampleLatency() {
+		return true;
+	}
+	
 	protected final void read() throws AerospikeException, IOException {
 		if (inHeader) {
 			if (! conn.read(byteBuffer)) {
@@ -51,13 +79,9 @@ public abstract class AsyncSingleCommand extends AsyncCommand {
 			byteBuffer.position(0);
 			receiveSize = ((int) (byteBuffer.getLong() & 0xFFFFFFFFFFFFL));
 				        
-			if (receiveSize <= byteBuffer.capacity()) {
-				byteBuffer.clear();
-				byteBuffer.limit(receiveSize);
-			}
-			else {
-				byteBuffer = ByteBuffer.allocateDirect(receiveSize);
-			}
+			resizeByteBuffer(receiveSize);
+			byteBuffer.clear();
+			byteBuffer.limit(receiveSize);
 			inHeader = false;
 		}
 
@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.async;
+
+import java.net.InetSocketAddress;
+
+import com.aerospike.client.AerospikeException;
+
+/**
+ * Network event loops that run asynchronous commands.  The default transport is a set of 
+ * NIO selector threads owned by the client.  Alternate transports, like {@link NettyTransport},
+ * run commands on event loops owned by the application.
+ * <p>
+ * Node connection pools are kept per event loop, so a connection is only used by commands 
+ * running on the event loop that created it.
+ */
+public interface AsyncTransport {
+	/**
+	 * Return number of event loops.
+	 */
+	public int size();
+	
+	/**
+	 * Return index of the event loop that should run the next command.
+	 */
+	public int next();
+	
+	/**
+	 * Open connection to a server node on the given event loop.
+	 */
+	public AsyncConnection createConnection(InetSocketAddress address, AsyncCluster cluster, int index) throws AerospikeException.Connection;
+
+	/**
+	 * Return true if the current thread is one of this transport's event loops.
+	 * Event loop threads must never block.
+	 */
+	public boolean inEventLoop();
+
+	/**
+	 * Stop event loops owned by this transport.  Called when the client is closed.
+	 */
+	public void close();
+}
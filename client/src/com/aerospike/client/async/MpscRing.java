@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.async;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, preallocated multi-producer single-consumer ring buffer.  Producers claim a slot 
+ * with one compare-and-set on the tail sequence and publish the element with an ordered store.  
+ * The single consumer frees slots by advancing the head sequence.  No objects are allocated 
+ * per element.
+ * <p>
+ * {@link #offer(Object)} returns false when the ring is full.  Callers are expected to fall 
+ * back to an unbounded queue in that case.
+ */
+public final class MpscRing<T> {
+	private final AtomicReferenceArray<T> buffer;
+	private final int mask;
+	private final AtomicLong tail = new AtomicLong();
+	private final AtomicLong head = new AtomicLong();
+	
+	// Last head read by producers.  Avoids reading the consumer's cache line on every offer.
+	private volatile long headCache;
+	
+	/**
+	 * Create ring with capacity rounded up to a power of two.
+	 */
+	public MpscRing(int capacity) {
+		int size = 1;
+		
+		while (size < capacity) {
+			size <<= 1;
+		}
+		buffer = new AtomicReferenceArray<T>(size);
+		mask = size - 1;
+	}
+
+	/**
+	 * Add element.  Return false if the ring is full.  May be called by any thread.
+	 */
+	public boolean offer(T element) {
+		int capacity = mask + 1;
+		
+		while (true) {
+			long current = tail.get();
+			long wrap = current - capacity;
+			
+			if (headCache <= wrap) {
+				headCache = head.get();
+				
+				if (headCache <= wrap) {
+					return false;
+				}
+			}
+			
+			if (tail.compareAndSet(current, current + 1)) {
+				buffer.lazySet((int)current & mask, element);
+				return true;
+			}
+		}
+	}
+	
+	/**
+	 * Remove element.  Return null if the ring is empty.  Must only be called by the consumer thread.
+	 */
+	public T poll() {
+		long current = head.get();
+		int index = (int)current & mask;
+		T element = buffer.get(index);
+		
+		if (element == null) {
+			if (current == tail.get()) {
+				return null;
+			}
+			
+			// Producer has claimed the slot, but has not stored the element yet.
+			do {
+				element = buffer.get(index);
+			} while (element == null);
+		}
+		buffer.lazySet(index, null);
+		head.lazySet(current + 1);
+		return element;
+	}
+	
+	/**
+	 * Return true if the ring contains no elements.
+	 */
+	public boolean isEmpty() {
+		return head.get() == tail.get();
+	}
+	
+	/**
+	 * Return maximum number of elements.
+	 */
+	public int capacity() {
+		return mask + 1;
+	}
+}
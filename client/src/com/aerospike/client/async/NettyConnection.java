@@ -0,0 +1,290 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.async;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoop;
+import io.netty.channel.socket.SocketChannel;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import com.aerospike.client.AerospikeException;
+
+/**
+ * Asynchronous connection running on a Netty event loop.  Response data is accumulated
+ * in pooled byte buffers and copied into the command's buffer as the command parses it,
+ * so command parsing is shared with the selector transport.
+ */
+public final class NettyConnection extends AsyncConnection {
+	private final EventLoop eventLoop;
+	private final ChannelFuture connectFuture;
+	private final Channel channel;
+	private final int index;
+	private volatile AsyncCommand command;
+	
+	// Received data not yet consumed by command.  Only accessed in event loop.
+	private ByteBuf cumulation;
+	
+	public NettyConnection(
+		InetSocketAddress address,
+		AsyncCluster cluster,
+		EventLoop eventLoop,
+		Class<? extends SocketChannel> channelClass,
+		int index
+	) throws AerospikeException.Connection {
+		super(cluster);
+		this.eventLoop = eventLoop;
+		this.index = index;
+		
+		try {
+			Bootstrap bootstrap = new Bootstrap();
+			bootstrap.group(eventLoop)
+				.channel(channelClass)
+				.option(ChannelOption.TCP_NODELAY, true)
+				.option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+				.handler(new ResponseHandler());
+			
+			connectFuture = bootstrap.connect(address);
+			channel = connectFuture.channel();
+		}
+		catch (Exception e) {
+			throw new AerospikeException.Connection("Netty channel init error: " + e.getMessage());
+		}
+	}
+	
+	@Override
+	public int getIndex() {
+		return index;
+	}
+
+	@Override
+	public void execute(final AsyncCommand command) {
+		eventLoop.execute(new Runnable() {
+			public void run() {
+				executeInLoop(command);
+			}
+		});
+	}
+	
+	private void executeInLoop(final AsyncCommand command) {
+		try {
+			if (command.getDeadline() > 0) {
+				if (! command.expire(System.currentTimeMillis())) {
+					return;
+				}
+				scheduleTimeout(command);
+			}
+			this.command = command;
+			
+			if (connectFuture.isDone()) {
+				writeCommand(command);
+			}
+			else {
+				connectFuture.addListener(new ChannelFutureListener() {
+					public void operationComplete(ChannelFuture future) {
+						writeCommand(command);
+					}
+				});
+			}
+		}
+		catch (Exception e) {
+			command.retryAfterInit(new AerospikeException(e));
+		}
+	}
+	
+	private void writeCommand(final AsyncCommand command) {
+		if (! connectFuture.isSuccess()) {
+			command.retryAfterInit(new AerospikeException.Connection("Netty connect error: " + connectFuture.cause()));
+			return;
+		}
+		
+		// Copy command into a pooled buffer and prepare command buffer to receive the header.
+		ByteBuffer byteBuffer = command.byteBuffer;
+		ByteBuf out = channel.alloc().directBuffer(byteBuffer.remaining());
+		out.writeBytes(byteBuffer);
+		byteBuffer.clear();
+		byteBuffer.limit(8);
+		
+		channel.writeAndFlush(out).addListener(new ChannelFutureListener() {
+			public void operationComplete(ChannelFuture future) {
+				if (! future.isSuccess()) {
+					command.retryAfterInit(new AerospikeException(future.cause()));
+				}
+			}
+		});
+	}
+	
+	private void scheduleTimeout(final AsyncCommand command) {
+		long delay = command.getDeadline() - System.currentTimeMillis() + 1;
+		
+		eventLoop.schedule(new Runnable() {
+			public void run() {
+				if (command.expire(System.currentTimeMillis()) && command.getDeadline() > 0) {
+					scheduleTimeout(command);
+				}
+			}
+		}, (delay > 0)? delay : 1, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void resume(final AsyncCommand command) {
+		eventLoop.execute(new Runnable() {
+			public void run() {
+				command.resume();
+			}
+		});
+	}
+
+	/**
+	 * Copy received data till byteBuffer limit reached or received data is exhausted.
+	 */
+	@Override
+	public boolean read(ByteBuffer byteBuffer) throws IOException {
+		ByteBuf buf = cumulation;
+		
+		if (buf == null) {
+			return ! byteBuffer.hasRemaining();
+		}
+		
+		int len = Math.min(buf.readableBytes(), byteBuffer.remaining());
+		
+		if (len > 0) {
+			int limit = byteBuffer.limit();
+			byteBuffer.limit(byteBuffer.position() + len);
+			buf.readBytes(byteBuffer);
+			byteBuffer.limit(limit);
+		}
+		
+		if (! buf.isReadable()) {
+			buf.release();
+			cumulation = null;
+		}
+		return ! byteBuffer.hasRemaining();
+	}
+
+	@Override
+	public void setReadable() {
+		if (! channel.config().isAutoRead()) {
+			channel.config().setAutoRead(true);
+			
+			// Data may have arrived while the command was paused.
+			AsyncCommand cmd = command;
+			
+			if (cmd != null && cumulation != null && cumulation.isReadable()) {
+				eventLoop.execute(cmd);
+			}
+		}
+	}
+
+	@Override
+	public void pauseRead() {
+		channel.config().setAutoRead(false);
+	}
+
+	@Override
+	public void unregister() {
+		command = null;
+	}
+
+	@Override
+	public boolean isConnected() {
+		return channel.isActive();
+	}
+
+	@Override
+	public void close() {
+		command = null;
+		channel.close();
+	}
+	
+	private final class ResponseHandler extends ChannelInboundHandlerAdapter {
+		@Override
+		public void channelRead(ChannelHandlerContext ctx, Object msg) {
+			ByteBuf in = (ByteBuf)msg;
+			
+			if (cumulation == null) {
+				cumulation = in;
+			}
+			else {
+				if (cumulation.refCnt() > 1 || cumulation.maxWritableBytes() < in.readableBytes()) {
+					ByteBuf buf = ctx.alloc().directBuffer(cumulation.readableBytes() + in.readableBytes());
+					buf.writeBytes(cumulation);
+					cumulation.release();
+					cumulation = buf;
+				}
+				cumulation.writeBytes(in);
+				in.release();
+			}
+			
+			AsyncCommand cmd = command;
+			
+			if (cmd == null) {
+				// Data without a command means the connection is out of sync.
+				close();
+				return;
+			}
+			
+			if (! cmd.paused) {
+				cmd.run();
+			}
+		}
+
+		@Override
+		public void channelInactive(ChannelHandlerContext ctx) {
+			if (cumulation != null) {
+				cumulation.release();
+				cumulation = null;
+			}
+			
+			AsyncCommand cmd = command;
+			command = null;
+			
+			if (cmd != null) {
+				// Server has shutdown socket.
+				cmd.retryAfterInit(new AerospikeException(new EOFException()));
+			}
+		}
+
+		@Override
+		public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+			AsyncCommand cmd = command;
+			command = null;
+			ctx.close();
+			
+			if (cmd != null) {
+				cmd.retryAfterInit(new AerospikeException(cause));
+			}
+		}
+	}
+}
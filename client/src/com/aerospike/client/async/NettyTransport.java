@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.async;
+
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.EventExecutor;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.aerospike.client.AerospikeException;
+
+/**
+ * Asynchronous transport that runs commands on the event loops of an application owned 
+ * Netty EventLoopGroup.  Responses are received in pooled Netty byte buffers.
+ * The Netty transport jars are an optional dependency and must be on the classpath 
+ * when this transport is used.
+ * <p>
+ * Example using the native epoll transport:
+ * <pre>
+ * EventLoopGroup group = new EpollEventLoopGroup();
+ * AsyncClientPolicy policy = new AsyncClientPolicy();
+ * policy.asyncTransport = new NettyTransport(group, EpollSocketChannel.class);
+ * AsyncClient client = new AsyncClient(policy, "localhost", 3000);
+ * </pre>
+ * The event loop group is not shut down when the client is closed.
+ */
+public final class NettyTransport implements AsyncTransport {
+	private final EventLoop[] eventLoops;
+	private final Class<? extends SocketChannel> channelClass;
+	private final AtomicInteger current = new AtomicInteger();
+	
+	/**
+	 * Run commands on the given event loop group using NIO socket channels.
+	 * 
+	 * @param group				application owned event loops
+	 * @throws AerospikeException	if group does not contain event loops
+	 */
+	public NettyTransport(EventLoopGroup group) throws AerospikeException {
+		this(group, NioSocketChannel.class);
+	}
+
+	/**
+	 * Run commands on the given event loop group using the given socket channel class.
+	 * The channel class must match the group's transport, for example EpollSocketChannel
+	 * for an EpollEventLoopGroup.
+	 * 
+	 * @param group				application owned event loops
+	 * @param channelClass		socket channel implementation
+	 * @throws AerospikeException	if group does not contain event loops
+	 */
+	public NettyTransport(EventLoopGroup group, Class<? extends SocketChannel> channelClass) throws AerospikeException {
+		ArrayList<EventLoop> list = new ArrayList<EventLoop>();
+		
+		for (EventExecutor executor : group) {
+			list.add((EventLoop)executor);
+		}
+		
+		if (list.size() == 0) {
+			throw new AerospikeException("Netty event loop group is empty");
+		}
+		this.eventLoops = list.toArray(new EventLoop[list.size()]);
+		this.channelClass = channelClass;
+	}
+	
+	@Override
+	public int size() {
+		return eventLoops.length;
+	}
+	
+	@Override
+	public int next() {
+        return Math.abs(current.getAndIncrement() % eventLoops.length);
+	}
+
+	@Override
+	public AsyncConnection createConnection(InetSocketAddress address, AsyncCluster cluster, int index) throws AerospikeException.Connection {
+		return new NettyConnection(address, cluster, eventLoops[index], channelClass, index);
+	}
+
+	@Override
+	public boolean inEventLoop() {
+		for (EventLoop eventLoop : eventLoops) {
+			if (eventLoop.inEventLoop()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Do nothing.  Event loops are owned by the application.
+	 */
+	@Override
+	public void close() {
+	}
+}
@@ -26,7 +26,6 @@ import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
 import java.nio.channels.spi.SelectorProvider;
-import java.util.ArrayDeque;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -38,25 +37,60 @@ import com.aerospike.client.Log;
 import com.aerospike.client.util.Util;
 
 public final class SelectorManager extends Thread {
+	private static final int TIMEOUT_SLOTS = 512;
+	private static final int MIN_RING_SIZE = 256;
+	
+	// Commands are handed off through a preallocated ring.  The linked queue only
+	// holds commands that did not fit, for example when asyncMaxCommandAction is ACCEPT.
+    private final MpscRing<AsyncCommand> commandRing;
     private final ConcurrentLinkedQueue<AsyncCommand> commandQueue = new ConcurrentLinkedQueue<AsyncCommand>();
-    private final ArrayDeque<AsyncCommand> timeoutQueue;
+    private final ConcurrentLinkedQueue<AsyncCommand> resumeQueue = new ConcurrentLinkedQueue<AsyncCommand>();
+    private final TimeoutWheel<AsyncCommand> timeoutWheel;
     private final Selector selector;
     private final ExecutorService taskThreadPool;
     private final AtomicBoolean awakened = new AtomicBoolean();
     private final long selectorTimeout;
+    private final int index;
 	private volatile boolean valid;
     
-    public SelectorManager(AsyncClientPolicy policy, SelectorProvider provider) throws IOException {
+    public SelectorManager(AsyncClientPolicy policy, SelectorProvider provider, int index) throws IOException {
+    	this.index = index;
     	this.selectorTimeout = policy.asyncSelectorTimeout;
     	this.taskThreadPool = policy.asyncTaskThreadPool;
     	selector = provider.openSelector();
-    	timeoutQueue = new ArrayDeque<AsyncCommand>(policy.asyncMaxCommands);
+    	timeoutWheel = new TimeoutWheel<AsyncCommand>(TIMEOUT_SLOTS, policy.asyncTimerTick, System.currentTimeMillis());
+    	commandRing = new MpscRing<AsyncCommand>(Math.max(policy.asyncMaxCommands, MIN_RING_SIZE));
+    }
+    
+    /**
+     * Return position of this manager in the cluster's selector array.  
+     * Used to select the node connection pool owned by this selector.
+     */
+    public int getIndex() {
+    	return index;
     }
     
     public void execute(AsyncCommand command) {
-    	commandQueue.add(command);
-    	
-        if (awakened.compareAndSet(false, true)) {
+    	if (! commandRing.offer(command)) {
+    		commandQueue.add(command);
+    	}
+    	wakeup();
+    }
+
+    /**
+     * Restore read interest for a command that paused reading.
+     */
+    public void resume(AsyncCommand command) {
+    	resumeQueue.add(command);
+    	wakeup();
+    }
+    
+    /**
+     * Wake up selector at most once per select cycle.  The selector thread itself never 
+     * needs a wakeup because it drains the queues before its next select.
+     */
+    private void wakeup() {
+        if (Thread.currentThread() != this && awakened.compareAndSet(false, true)) {
             selector.wakeup();
         }
     }
@@ -81,14 +115,14 @@ public final class SelectorManager extends Thread {
     }
     
     private void runCommands() throws Exception {
-    	checkTimeouts();
-    	registerCommands();
+    	timeoutWheel.advance(System.currentTimeMillis());
+    	
+    	// Clear wakeup flag before draining.  A command queued after the drain sets the
+    	// flag again and wakes up the select below, so no command waits for a timeout.
     	awakened.set(false);
-        selector.select(selectorTimeout);
-        
-        if (awakened.get()) {
-            selector.wakeup();
-        }
+    	registerCommands();
+    	resumeCommands();
+        selector.select(getSelectTimeout());
         
         final Set<SelectionKey> keys = selector.selectedKeys();
 
@@ -113,20 +147,36 @@ public final class SelectorManager extends Thread {
         }
     }
     
+    private long getSelectTimeout() {
+    	// Wake up on the next tick while timeouts or hedged reads are pending.
+    	long wait = timeoutWheel.getWaitMillis(System.currentTimeMillis());
+    	
+    	if (wait < 0) {
+    		return selectorTimeout;
+    	}
+    	return (selectorTimeout > 0 && selectorTimeout < wait)? selectorTimeout : wait;
+    }
+    
     private void registerCommands() {
     	AsyncCommand command;
+    	long current = 0;
     	
-    	while ((command = commandQueue.poll()) != null) {
+    	// Drain ring first, then overflow queue.  Read clock at most once per batch.
+    	while ((command = commandRing.poll()) != null || (command = commandQueue.poll()) != null) {
 	    	try {
-	    		if (command.timeout > 0) {
-		    		if (command.checkTimeout()) {
-		    			timeoutQueue.addLast(command);
+	    		if (command.timeout > 0 || command.hedgeLimit > 0) {
+	    			if (current == 0) {
+	    				current = System.currentTimeMillis();
+	    			}
+	    			
+		    		if (command.expire(current)) {
+		    			timeoutWheel.add(command);
 		    		}
 		    		else {
 		    			continue;
 		    		}
 	    		}	    		
-		    	command.conn.register(command, selector);
+		    	((SelectorConnection)command.conn).register(command, selector);
 	    	}
     		catch (Exception e) {
             	command.retryAfterInit(new AerospikeException(e));
@@ -134,18 +184,16 @@ public final class SelectorManager extends Thread {
     	}    	
     }
 
-    private void checkTimeouts() {
-    	AsyncCommand last = timeoutQueue.peekLast();
+    private void resumeCommands() {
     	AsyncCommand command;
-   	
-    	while ((command = timeoutQueue.pollFirst()) != null) {
-    		if (command.checkTimeout()) {
-    			timeoutQueue.addLast(command);
-    		}
-    		
-    		if (command == last) {
-    			break;
-    		}
+    	
+    	while ((command = resumeQueue.poll()) != null) {
+	    	try {
+	    		command.resume();
+	    	}
+    		catch (Exception e) {
+            	command.retryAfterInit(new AerospikeException(e));
+    		}	    	
     	}
     }
 
@@ -158,10 +206,16 @@ public final class SelectorManager extends Thread {
         	if ((ops & SelectionKey.OP_READ) != 0) {        		
         		if (taskThreadPool != null) {
         			key.interestOps(0);
+        			command.inTask = true;
         			taskThreadPool.execute(command);
         		}
         		else {
         			command.read();
+        			
+        			if (command.paused) {
+        				key.interestOps(0);
+        				command.readPaused();
+        			}
         		}
         	}
         	else if ((ops & SelectionKey.OP_WRITE) != 0) {
@@ -22,13 +22,17 @@
 package com.aerospike.client.async;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.nio.channels.spi.SelectorProvider;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import com.aerospike.client.AerospikeException;
 import com.aerospike.client.util.Util;
 
-public final class SelectorManagers {
+/**
+ * Default asynchronous transport.  Runs commands on NIO selector threads owned by the client.
+ */
+public final class SelectorManagers implements AsyncTransport {
 	
 	private final SelectorManager[] managers;
     private final AtomicInteger current = new AtomicInteger();
@@ -40,7 +44,7 @@ public final class SelectorManagers {
 		
 		for (int i = 0; i < policy.asyncSelectorThreads; i++) {
 			try {
-				managers[i] = new SelectorManager(policy, provider);
+				managers[i] = new SelectorManager(policy, provider, i);
 			}
 			catch (IOException ioe) {
                 for (int j = 0; j < i; j++) {
@@ -60,10 +64,34 @@ public final class SelectorManagers {
 		}
 	}
 		
-	public SelectorManager next() {
-        return managers[Math.abs(current.getAndIncrement() % managers.length)];
+	@Override
+	public int next() {
+        return Math.abs(current.getAndIncrement() % managers.length);
 	}
 	
+	@Override
+	public int size() {
+		return managers.length;
+	}
+	
+	@Override
+	public AsyncConnection createConnection(InetSocketAddress address, AsyncCluster cluster, int index) throws AerospikeException.Connection {
+		return new SelectorConnection(address, cluster, managers[index]);
+	}
+	
+	@Override
+	public boolean inEventLoop() {
+		Thread thread = Thread.currentThread();
+		
+		for (SelectorManager manager : managers) {
+			if (manager == thread) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	@Override
 	public void close() {		
 		for (SelectorManager manager : managers) {
 			manager.close();
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.async;
+
+/**
+ * Hashed timing wheel used by selector threads to expire command timeouts and hedge delays.
+ * Insert is O(1).  Each tick only visits the timers hashed to that tick's slot, and all 
+ * timers in a slot are checked against a single clock read.  Timers are removed lazily:
+ * completed commands stay in their slot until it is visited and then drop out.
+ * <p>
+ * This class is not thread safe.  Each selector thread owns its own wheel.
+ */
+public final class TimeoutWheel<T extends TimeoutWheel.Timer> {
+	private final Object[][] slots;
+	private final int[] counts;
+	private final int mask;
+	private final long tickMillis;
+	private long nextTick;
+	private int size;
+	private Object[] reschedule = new Object[16];
+	
+	/**
+	 * Initialize wheel.
+	 * 
+	 * @param slotCount			number of slots, rounded up to a power of two
+	 * @param tickMillis		milliseconds covered by each slot
+	 * @param current			current time in milliseconds
+	 */
+	public TimeoutWheel(int slotCount, long tickMillis, long current) {
+		int n = 1;
+		
+		while (n < slotCount) {
+			n <<= 1;
+		}
+		this.slots = new Object[n][];
+		this.counts = new int[n];
+		this.mask = n - 1;
+		this.tickMillis = (tickMillis > 0)? tickMillis : 1;
+		this.nextTick = current / this.tickMillis;
+	}
+	
+	/**
+	 * Schedule timer at its current deadline.  Timers without a deadline are ignored.
+	 */
+	public void add(T timer) {
+		long deadline = timer.getDeadline();
+		
+		if (deadline <= 0) {
+			return;
+		}
+		
+		long tick = (deadline + tickMillis - 1) / tickMillis;
+		
+		if (tick < nextTick) {
+			tick = nextTick;
+		}
+		
+		int index = (int)(tick & mask);
+		Object[] slot = slots[index];
+		int count = counts[index];
+		
+		if (slot == null) {
+			slot = new Object[8];
+			slots[index] = slot;
+		}
+		else if (count == slot.length) {
+			Object[] tmp = new Object[count * 2];
+			System.arraycopy(slot, 0, tmp, 0, count);
+			slot = tmp;
+			slots[index] = slot;
+		}
+		slot[count] = timer;
+		counts[index] = count + 1;
+		size++;
+	}
+	
+	/**
+	 * Expire all timers whose tick has been reached.  Timers that return true from
+	 * {@link Timer#expire(long)} are scheduled again at their new deadline.
+	 * 
+	 * @param current			current time in milliseconds, read once by the caller
+	 */
+	@SuppressWarnings("unchecked")
+	public void advance(long current) {
+		long lastTick = current / tickMillis;
+		
+		if (lastTick < nextTick) {
+			return;
+		}
+		
+		if (size == 0) {
+			nextTick = lastTick + 1;
+			return;
+		}
+		
+		// When more ticks than slots have passed, each slot only needs to be visited once.
+		long ticks = lastTick - nextTick + 1;
+		int max = (ticks < slots.length)? (int)ticks : slots.length;
+		int rescheduleCount = 0;
+		
+		for (int i = 0; i < max; i++) {
+			int index = (int)((nextTick + i) & mask);
+			Object[] slot = slots[index];
+			int count = counts[index];
+			int keep = 0;
+			
+			for (int j = 0; j < count; j++) {
+				T timer = (T)slot[j];
+				long deadline = timer.getDeadline();
+				
+				if (deadline > 0 && (deadline + tickMillis - 1) / tickMillis > lastTick) {
+					// Deadline is in a later revolution of the wheel.
+					slot[keep++] = timer;
+					continue;
+				}
+				size--;
+				
+				if (timer.expire(current)) {
+					if (rescheduleCount == reschedule.length) {
+						Object[] tmp = new Object[rescheduleCount * 2];
+						System.arraycopy(reschedule, 0, tmp, 0, rescheduleCount);
+						reschedule = tmp;
+					}
+					reschedule[rescheduleCount++] = timer;
+				}
+			}
+			
+			for (int j = keep; j < count; j++) {
+				slot[j] = null;
+			}
+			counts[index] = keep;
+		}
+		nextTick = lastTick + 1;
+		
+		for (int i = 0; i < rescheduleCount; i++) {
+			add((T)reschedule[i]);
+			reschedule[i] = null;
+		}
+	}
+	
+	/**
+	 * Return milliseconds until the next tick, or -1 if the wheel is empty.
+	 */
+	public long getWaitMillis(long current) {
+		if (size == 0) {
+			return -1;
+		}
+		return Math.max(nextTick * tickMillis - current, 1);
+	}
+	
+	/**
+	 * Return number of scheduled timers, including completed timers not yet visited.
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Timer scheduled on a wheel.
+	 */
+	public interface Timer {
+		/**
+		 * Return absolute deadline in milliseconds or zero if there is no deadline.
+		 */
+		public long getDeadline();
+		
+		/**
+		 * Deadline has been reached.  Return true if the timer should be scheduled 
+		 * again at its new deadline.
+		 */
+		public boolean expire(long current);
+	}
+}
@@ -21,6 +21,7 @@
  ******************************************************************************/
 package com.aerospike.client.cluster;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -48,6 +49,12 @@ public class Cluster implements Runnable {
 	// Hints for best node for a partition
 	private volatile HashMap<String,Node[]> partitionWriteMap;
 	
+	// Hints for prole (replica) node for a partition.  Only maintained when requested.
+	private volatile HashMap<String,Node[]> partitionProleMap;
+	
+	// Should prole partition ownership be requested from server nodes.
+	private final boolean requestProleReplicas;
+	
 	// Random node index.
 	private final AtomicInteger nodeIndex;
 	
@@ -62,6 +69,15 @@ public class Cluster implements Runnable {
 
 	// Maximum socket idle in seconds.
 	protected final int maxSocketIdle;
+	
+	// Maximum retry tokens per node.  Zero disables retry budget.
+	protected final int retryBudget;
+	
+	// Fraction of a retry token earned by each successful command.
+	protected final double retryBudgetRatio;
+	
+	// Use channel backed sockets so blocked sync commands can be interrupted.
+	protected final boolean interruptibleSockets;
 
 	// Tend thread variables.
 	private Thread tendThread;
@@ -75,26 +91,36 @@ public class Cluster implements Runnable {
 		connectionQueueSize = policy.maxThreads + 1;  // Add one connection for tend thread.
 		connectionTimeout = policy.timeout;
 		maxSocketIdle = policy.maxSocketIdle;
+		retryBudget = policy.retryBudget;
+		retryBudgetRatio = policy.retryBudgetRatio;
+		interruptibleSockets = policy.interruptibleSockets;
 		
 		if (policy.threadPool == null) {
-			// Create cached thread pool with daemon threads.
-			// Daemon threads automatically terminate when the program terminates.
-			threadPool = Executors.newCachedThreadPool(new ThreadFactory() {
-				public final Thread newThread(Runnable runnable) {
-					Thread thread = new Thread(runnable);
-					thread.setDaemon(true);
-					return thread;
-				}
-			});
+			ExecutorService pool = policy.useVirtualThreads? createVirtualThreadPool() : null;
+			
+			if (pool == null) {
+				// Create cached thread pool with daemon threads.
+				// Daemon threads automatically terminate when the program terminates.
+				pool = Executors.newCachedThreadPool(new ThreadFactory() {
+					public final Thread newThread(Runnable runnable) {
+						Thread thread = new Thread(runnable);
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+			}
+			threadPool = pool;
 		}
 		else {
 			threadPool = policy.threadPool;
 		}
 		sharedThreadPool = policy.sharedThreadPool;
+		requestProleReplicas = policy.requestProleReplicas;
 		
 		aliases = new HashMap<Host,Node>();
 		nodes = new Node[0];	
 		partitionWriteMap = new HashMap<String,Node[]>();		
+		partitionProleMap = new HashMap<String,Node[]>();		
 		nodeIndex = new AtomicInteger();
 	}
 	
@@ -270,6 +296,23 @@ public class Cluster implements Runnable {
 		if (map != null) {		
 			partitionWriteMap = map;
 		}
+		
+		if (requestProleReplicas && node.useNewInfo) {
+			try {
+				PartitionTokenizerNew tokens = new PartitionTokenizerNew(conn, PartitionTokenizerNew.ProleReplicasName);
+				map = tokens.updatePartition(partitionProleMap, node);
+				
+				if (map != null) {
+					partitionProleMap = map;
+				}
+			}
+			catch (AerospikeException.Parse pe) {
+				// Server does not support prole replica requests.  Reads will only use master nodes.
+				if (Log.debugEnabled()) {
+					Log.debug("Node " + node + " prole replicas unavailable: " + Util.getErrorMessage(pe));
+				}
+			}
+		}
 	}
 
 	private final void seedNodes() {
@@ -553,6 +596,25 @@ public class Cluster implements Runnable {
 		return getRandomNode();
 	}
 
+	/**
+	 * Return active prole (replica) node for partition or null if prole replicas are not 
+	 * requested or the prole node is not known.
+	 */
+	public final Node getProleNode(Partition partition) {
+		// Must copy hashmap reference for copy on write semantics to work.
+		HashMap<String,Node[]> map = partitionProleMap;
+		Node[] nodeArray = map.get(partition.namespace);
+		
+		if (nodeArray != null) {
+			Node node = nodeArray[partition.partitionId];
+			
+			if (node != null && node.isActive()) {
+				return node;
+			}
+		}
+		return null;
+	}
+
 	public final Node getRandomNode() throws AerospikeException.InvalidNode {
 		// Must copy array reference for copy on write semantics to work.
 		Node[] nodeArray = nodes;
@@ -599,6 +661,23 @@ public class Cluster implements Runnable {
 		return null;
 	}
 
+	/**
+	 * Create virtual thread per task executor by reflection so the client still
+	 * compiles and runs on older JDKs.  Return null if virtual threads are not available.
+	 */
+	private static ExecutorService createVirtualThreadPool() {
+		try {
+			Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService)method.invoke(null);
+		}
+		catch (Exception e) {
+			if (Log.warnEnabled()) {
+				Log.warn("Virtual threads not supported by JVM. Using platform thread pool.");
+			}
+			return null;
+		}
+	}
+	
 	public final ExecutorService getThreadPool() {
 		return threadPool;
 	}
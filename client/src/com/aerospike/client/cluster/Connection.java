@@ -28,6 +28,7 @@ import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketException;
+import java.nio.channels.SocketChannel;
 
 import com.aerospike.client.AerospikeException;
 import com.aerospike.client.Log;
@@ -48,10 +49,19 @@ public final class Connection {
 	}
 
 	public Connection(InetSocketAddress address, int timeoutMillis, int maxSocketIdleSeconds) throws AerospikeException.Connection {
+		this(address, timeoutMillis, maxSocketIdleSeconds, false);
+	}
+
+	/**
+	 * Open connection.  If interruptible is true, the socket is backed by a channel, so
+	 * interrupting a thread blocked in connect or read closes the socket and aborts the wait.
+	 */
+	public Connection(InetSocketAddress address, int timeoutMillis, int maxSocketIdleSeconds, boolean interruptible) 
+		throws AerospikeException.Connection {
 		this.maxSocketIdleMillis = (long)maxSocketIdleSeconds * 1000L;
 
 		try {
-			socket = new Socket();
+			socket = interruptible? SocketChannel.open().socket() : new Socket();
 			socket.setTcpNoDelay(true);
 			
 			if (timeoutMillis > 0) {
@@ -73,10 +83,14 @@ public final class Connection {
 	}
 	
 	public void write(byte[] buffer, int length) throws IOException {
+		write(buffer, 0, length);
+	}
+	
+	public void write(byte[] buffer, int offset, int length) throws IOException {
 		// Never write more than 8 KB at a time.  Apparently, the jni socket write does an extra 
 		// malloc and free if buffer size > 8 KB.
-		final int max = length;
-		int pos = 0;
+		final int max = offset + length;
+		int pos = offset;
 		int len;
 		
 		while (pos < max) {
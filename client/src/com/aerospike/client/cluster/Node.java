@@ -50,6 +50,7 @@ public class Node {
 	protected final InetSocketAddress address;
 	private final ArrayBlockingQueue<Connection> connectionQueue;
 	private final AtomicInteger health;
+	private final RetryBudget retryBudget;
 	private int partitionGeneration;
 	protected int referenceCount;
 	protected boolean responded;
@@ -75,6 +76,7 @@ public class Node {
 		
 		connectionQueue = new ArrayBlockingQueue<Connection>(cluster.connectionQueueSize);		
 		health = new AtomicInteger(FULL_HEALTH);
+		retryBudget = (cluster.retryBudget > 0)? new RetryBudget(cluster.retryBudget, cluster.retryBudgetRatio) : null;
 		partitionGeneration = -1;
 		active = true;
 	}
@@ -203,7 +205,7 @@ public class Node {
 			}
 			conn.close();
 		}
-		return new Connection(address, timeoutMillis, cluster.maxSocketIdle);		
+		return new Connection(address, timeoutMillis, cluster.maxSocketIdle, cluster.interruptibleSockets);		
 	}
 	
 	/**
@@ -224,6 +226,18 @@ public class Node {
 		// There can be cases where health is full, but active is false.
 		// Once a node has been marked inactive, it stays inactive.
 		health.set(FULL_HEALTH);
+		
+		if (retryBudget != null) {
+			retryBudget.deposit();
+		}
+	}
+
+	/**
+	 * Spend one token from the node's retry budget.  Return false if the budget 
+	 * is exhausted and the command should fail without retrying.
+	 */
+	public final boolean acquireRetry() {
+		return retryBudget == null || retryBudget.acquire();
 	}
 
 	/**
@@ -35,6 +35,7 @@ import com.aerospike.client.command.Buffer;
  */
 public final class PartitionTokenizerNew {
 	private static final String ReplicasName = "replicas-master";
+	public static final String ProleReplicasName = "replicas-prole";
 	
 	// Create reusable StringBuilder for performance.	
 	protected final StringBuilder sb;
@@ -43,17 +44,21 @@ public final class PartitionTokenizerNew {
 	protected int offset;
 	
 	public PartitionTokenizerNew(Connection conn) throws AerospikeException {
+		this(conn, ReplicasName);
+	}
+	
+	public PartitionTokenizerNew(Connection conn, String replicasName) throws AerospikeException {
 		// Use low-level info methods and parse byte array directly for maximum performance.
 		// Send format:	   replicas-master\n
 		// Receive format: replicas-master\t<ns1>:<base 64 encoded bitmap>;<ns2>:<base 64 encoded bitmap>... \n
-		Info info = new Info(conn, ReplicasName);
+		Info info = new Info(conn, replicasName);
 		this.length = info.getLength();
 
 		if (length == 0) {
-			throw new AerospikeException.Parse(ReplicasName + " is empty");
+			throw new AerospikeException.Parse(replicasName + " is empty");
 		}
 		this.buffer = info.getBuffer();
-		this.offset = ReplicasName.length() + 1;  // Skip past name and tab
+		this.offset = replicasName.length() + 1;  // Skip past name and tab
 		this.sb = new StringBuilder(32);  // Max namespace length
 	}
 	
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.cluster;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Token bucket that limits retries sent to a server node.  Each retry spends one token
+ * and each successful command earns back a fraction of a token.  When a node degrades,
+ * the bucket drains and further retries fail fast instead of multiplying load on the node.
+ * Tokens are stored in thousandths to avoid floating point arithmetic.
+ */
+public final class RetryBudget {
+	private static final int TOKEN = 1000;
+	
+	private final AtomicInteger tokens;
+	private final int maxTokens;
+	private final int deposit;
+	
+	public RetryBudget(int maxTokens, double ratio) {
+		this.maxTokens = maxTokens * TOKEN;
+		this.deposit = Math.max((int)(ratio * TOKEN), 1);
+		this.tokens = new AtomicInteger(this.maxTokens);
+	}
+	
+	/**
+	 * Spend one token.  Return false if the budget is exhausted.
+	 */
+	public boolean acquire() {
+		while (true) {
+			int current = tokens.get();
+			
+			if (current < TOKEN) {
+				return false;
+			}
+			
+			if (tokens.compareAndSet(current, current - TOKEN)) {
+				return true;
+			}
+		}
+	}
+	
+	/**
+	 * Earn back a fraction of a token after a successful command.
+	 */
+	public void deposit() {
+		while (true) {
+			int current = tokens.get();
+			
+			if (current >= maxTokens) {
+				return;
+			}
+			
+			int next = current + deposit;
+			
+			if (next > maxTokens) {
+				next = maxTokens;
+			}
+			
+			if (tokens.compareAndSet(current, next)) {
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Return number of whole tokens available.
+	 */
+	public int available() {
+		return tokens.get() / TOKEN;
+	}
+}
@@ -22,11 +22,8 @@
 package com.aerospike.client.command;
 
 import java.io.IOException;
-import java.util.HashMap;
 
 import com.aerospike.client.AerospikeException;
-import com.aerospike.client.Key;
-import com.aerospike.client.Log;
 import com.aerospike.client.ResultCode;
 import com.aerospike.client.cluster.Node;
 import com.aerospike.client.policy.Policy;
@@ -34,20 +31,17 @@ import com.aerospike.client.policy.Policy;
 public final class BatchCommandExists extends MultiCommand {
 	private final BatchNode.BatchNamespace batchNamespace;
 	private final Policy policy;
-	private final HashMap<Key,BatchItem> keyMap;
 	private final boolean[] existsArray;
 
 	public BatchCommandExists(
 		Node node,
 		BatchNode.BatchNamespace batchNamespace,
 		Policy policy,
-		HashMap<Key,BatchItem> keyMap,
 		boolean[] existsArray
 	) {
 		super(node);
 		this.batchNamespace = batchNamespace;
 		this.policy = policy;
-		this.keyMap = keyMap;
 		this.existsArray = existsArray;
 	}
 	
@@ -97,18 +91,11 @@ public final class BatchCommandExists extends MultiCommand {
 				throw new AerospikeException.Parse("Received bins that were not requested!");
 			}
 						
-			Key key = parseKey(fieldCount);
-			BatchItem item = keyMap.get(key);
+			int index = parseBatchIndex(fieldCount, batchNamespace);
 			
-			if (item != null) {
-				int index = item.getIndex();
+			if (index >= 0) {
 				existsArray[index] = resultCode == 0;
 			}
-			else {
-				if (Log.debugEnabled()) {
-					Log.debug("Unexpected batch key returned: " + key.namespace + ',' + Buffer.bytesToHexString(key.digest));
-				}
-			}
 		}
 		return true;
 	}
@@ -28,8 +28,6 @@ import java.util.HashSet;
 import java.util.Map;
 
 import com.aerospike.client.AerospikeException;
-import com.aerospike.client.Key;
-import com.aerospike.client.Log;
 import com.aerospike.client.Record;
 import com.aerospike.client.ResultCode;
 import com.aerospike.client.cluster.Node;
@@ -38,7 +36,6 @@ import com.aerospike.client.policy.Policy;
 public final class BatchCommandGet extends MultiCommand {
 	private final BatchNode.BatchNamespace batchNamespace;
 	private final Policy policy;
-	private final HashMap<Key,BatchItem> keyMap;
 	private final HashSet<String> binNames;
 	private final Record[] records;
 	private final int readAttr;
@@ -47,7 +44,6 @@ public final class BatchCommandGet extends MultiCommand {
 		Node node,
 		BatchNode.BatchNamespace batchNamespace,
 		Policy policy,		
-		HashMap<Key,BatchItem> keyMap,
 		HashSet<String> binNames,
 		Record[] records,
 		int readAttr
@@ -55,7 +51,6 @@ public final class BatchCommandGet extends MultiCommand {
 		super(node);
 		this.batchNamespace = batchNamespace;
 		this.policy = policy;
-		this.keyMap = keyMap;
 		this.binNames = binNames;
 		this.records = records;
 		this.readAttr = readAttr;
@@ -100,24 +95,29 @@ public final class BatchCommandGet extends MultiCommand {
 			int expiration = Buffer.bytesToInt(dataBuffer, 10);
 			int fieldCount = Buffer.bytesToShort(dataBuffer, 18);
 			int opCount = Buffer.bytesToShort(dataBuffer, 20);
-			Key key = parseKey(fieldCount);
-			BatchItem item = keyMap.get(key);
+			int index = parseBatchIndex(fieldCount, batchNamespace);
 			
-			if (item != null) {				
-				if (resultCode == 0) {
-					int index = item.getIndex();
-					records[index] = parseRecord(opCount, generation, expiration);
-				}
+			if (index >= 0 && resultCode == 0) {
+				records[index] = parseRecord(opCount, generation, expiration);
 			}
 			else {
-				if (Log.debugEnabled()) {
-					Log.debug("Unexpected batch key returned: " + key.namespace + ',' + Buffer.bytesToHexString(key.digest));
-				}
+				skipRecord(opCount);
 			}
 		}
 		return true;
 	}
 
+	/**
+	 * Consume bins of a record that is not returned to the caller.
+	 */
+	private void skipRecord(int opCount) throws IOException {
+		for (int i = 0 ; i < opCount; i++) {
+			readBytes(8);
+			int opSize = Buffer.bytesToInt(dataBuffer, 0);
+			readBytes(opSize - 4);
+		}
+	}
+
 	/**
 	 * Parses the given byte buffer and populate the result object.
 	 * Returns the number of bytes that were parsed from the given buffer.
@@ -22,12 +22,14 @@
 package com.aerospike.client.command;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 
 import com.aerospike.client.AerospikeException;
+import com.aerospike.client.BatchCallback;
+import com.aerospike.client.BatchRead;
 import com.aerospike.client.Key;
 import com.aerospike.client.Record;
 import com.aerospike.client.cluster.Cluster;
@@ -37,8 +39,12 @@ import com.aerospike.client.policy.Policy;
 public final class BatchExecutor {
 	
 	private final ArrayList<BatchThread> threads;
+	private final ExecutorService threadPool;
+	private final Key[] keys;
+	private final Record[] records;
+	private final BatchCallback callback;
 	private volatile Exception exception;
-	private boolean completed;
+	private final CountDownLatch completed = new CountDownLatch(1);
 	
 	public BatchExecutor(
 		Cluster cluster,
@@ -49,33 +55,112 @@ public final class BatchExecutor {
 		HashSet<String> binNames,
 		int readAttr
 	) throws AerospikeException {
+		this(cluster, policy, keys, existsArray, records, binNames, readAttr, null);
+	}
+	
+	/**
+	 * Run batch.  If callback is not null, records are passed to the callback as each
+	 * batch command completes and are not retained in the records array.
+	 */
+	public BatchExecutor(
+		Cluster cluster,
+		Policy policy, 
+		Key[] keys,
+		boolean[] existsArray, 
+		Record[] records, 
+		HashSet<String> binNames,
+		int readAttr,
+		BatchCallback callback
+	) throws AerospikeException {
+		this(cluster, policy, keys, existsArray, records, binNames, readAttr, callback, null);
+	}
+
+	/**
+	 * Run batch where each key has its own bin names.  keys[i] must be the key of 
+	 * batchReads[i].  Each command reads only the bins requested for its own keys.
+	 */
+	public BatchExecutor(
+		Cluster cluster,
+		Policy policy, 
+		Key[] keys,
+		Record[] records, 
+		List<BatchRead> batchReads
+	) throws AerospikeException {
+		this(cluster, policy, keys, null, records, null, 0, null, batchReads);
+	}
+	
+	private BatchExecutor(
+		Cluster cluster,
+		Policy policy, 
+		Key[] keys,
+		boolean[] existsArray, 
+		Record[] records, 
+		HashSet<String> binNames,
+		int readAttr,
+		BatchCallback callback,
+		List<BatchRead> batchReads
+	) throws AerospikeException {
 		
-		List<BatchNode> batchNodes = BatchNode.generateList(cluster, keys);
-		HashMap<Key,BatchItem> keyMap = BatchItem.generateMap(keys);
+		if (policy == null) {
+			policy = new Policy();
+		}
+		this.threadPool = cluster.getThreadPool();
+		this.keys = keys;
+		this.records = records;
+		this.callback = callback;
+		
+		List<BatchNode> batchNodes = BatchNode.generateList(cluster, keys, policy.maxBatchKeys);
 		
 		// Initialize threads.  There may be multiple threads for a single node because the
-		// wire protocol only allows one namespace per command.  Multiple namespaces 
-		// require multiple threads per node.
+		// wire protocol only allows one namespace per command and large batches may be split
+		// into multiple commands.
 		threads = new ArrayList<BatchThread>(batchNodes.size() * 2);
+		ArrayList<BatchThread> initial = new ArrayList<BatchThread>(batchNodes.size() * 2);
+		int maxConcurrent = policy.maxConcurrentBatchCommands;
 		MultiCommand command = null;
 
 		for (BatchNode batchNode : batchNodes) {
+			// Chain commands for the same node into maxConcurrent lanes.  Each completed 
+			// command starts the next command in its lane.
+			int begin = threads.size();
+			
 			for (BatchNamespace batchNamespace : batchNode.batchNamespaces) {
-				if (records != null) {
-					command = new BatchCommandGet(batchNode.node, batchNamespace, policy, keyMap, binNames, records, readAttr);
+				if (batchReads != null) {
+					command = BatchReadExecutor.createCommand(batchNode.node, batchNamespace, policy, records, batchReads);
+				}
+				else if (records != null) {
+					command = new BatchCommandGet(batchNode.node, batchNamespace, policy, binNames, records, readAttr);
+				}
+				else {
+					command = new BatchCommandExists(batchNode.node, batchNamespace, policy, existsArray);
+				}
+				
+				BatchThread thread = new BatchThread(command, batchNamespace);
+				int offset = threads.size() - begin;
+				
+				if (maxConcurrent > 0 && offset >= maxConcurrent) {
+					threads.get(begin + offset - maxConcurrent).next = thread;
 				}
 				else {
-					command = new BatchCommandExists(batchNode.node, batchNamespace, policy, keyMap, existsArray);
+					initial.add(thread);
 				}
-				threads.add(new BatchThread(command));
+				threads.add(thread);
 			}
 		}
 		
-		ExecutorService threadPool = cluster.getThreadPool();
+		int last = initial.size() - 1;
 		
-		for (BatchThread thread : threads) {
-			threadPool.execute(thread);
+		if (last < 0) {
+			// No keys.
+			return;
+		}
+		
+		// Run last command on the calling thread.  Single command batches never touch the 
+		// thread pool and find the latch already released when they wait.
+		for (int i = 0; i < last; i++) {
+			threadPool.execute(initial.get(i));
 		}
+		initial.get(last).runInline();
 		
 		waitTillComplete();
 		
@@ -120,54 +205,113 @@ public final class BatchExecutor {
 		notifyCompleted();
     }
 
-	private synchronized void waitTillComplete() {
-		while (! completed) {
+	private void waitTillComplete() {
+		boolean interrupted = false;
+		
+		while (true) {
 			try {
-				super.wait();
+				completed.await();
+				break;
 			}
 			catch (InterruptedException ie) {
+				// Caller was interrupted.  Stop node commands, which releases the latch.
+				interrupted = true;
+				stopThreads(new AerospikeException.Cancelled(ie));
 			}
 		}
+		
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
 	}
 	
-	private synchronized void notifyCompleted() {
-		completed = true;
-		super.notify();
+	private void notifyCompleted() {
+		completed.countDown();
+	}
+
+	private void deliver(BatchNamespace batchNamespace) throws AerospikeException {
+		DigestTable table = batchNamespace.digestTable;
+		int size = table.size();
+		
+		for (int i = 0; i < size; i++) {
+			int index = table.getIndex(i);
+			Record record = records[index];
+			
+			// Release record, so memory use is bounded by the commands in progress.
+			records[index] = null;
+			callback.batchCallback(keys[index], record);
+		}
 	}
 
 	private final class BatchThread implements Runnable {
-		private MultiCommand command;
+		private final MultiCommand command;
+		private final BatchNamespace batchNamespace;
+		private BatchThread next;
 		private Thread thread;
+		private boolean inline;
 		private volatile boolean complete;
 
-		public BatchThread(MultiCommand command) {
+		public BatchThread(MultiCommand command, BatchNamespace batchNamespace) {
 			this.command = command;
+			this.batchNamespace = batchNamespace;
 		}
 		
 		public void run() {
-			thread = Thread.currentThread();
+			synchronized (this) {
+				thread = Thread.currentThread();
+			}
 
 			try {
 				if (command.isValid()) {
 					command.execute();
+					
+					if (callback != null) {
+						deliver(batchNamespace);
+					}
 				}
 			}
 			catch (Exception e) {
 				// Terminate other threads.
 				stopThreads(e);
 			}
+			detach();
 			complete = true;
 			
 		   	if (exception == null) {
+		   		if (next != null) {
+		   			threadPool.execute(next);
+		   		}
 				threadCompleted();
 		   	}
 		}
 		
+		/**
+		 * Run on the calling thread.
+		 */
+		public void runInline() {
+			inline = true;
+			run();
+		}
+		
 		public void stop() {
 			command.stop();
 			
-			if (thread != null) {
-				thread.interrupt();
+			synchronized (this) {
+				// Never interrupt the caller's thread.  The command stops at the next record.
+				if (thread != null && ! inline) {
+					thread.interrupt();
+				}
+			}
+		}
+		
+		private synchronized void detach() {
+			// Release pooled thread so a late stop() can not interrupt its next task.
+			// Clear any interrupt that was meant for this command, but leave 
+			// the caller's interrupt status alone.
+			thread = null;
+			
+			if (! inline) {
+				Thread.interrupted();
 			}
 		}
 	}
@@ -34,6 +34,14 @@ import com.aerospike.client.cluster.Partition;
 public final class BatchNode {
 	
 	public static List<BatchNode> generateList(Cluster cluster, Key[] keys) throws AerospikeException {
+		return generateList(cluster, keys, 0);
+	}
+	
+	/**
+	 * Split keys by server node and namespace.  If maxKeys is greater than zero, 
+	 * a namespace is further split into chunks of at most maxKeys keys.
+	 */
+	public static List<BatchNode> generateList(Cluster cluster, Key[] keys, int maxKeys) throws AerospikeException {
 		Node[] nodes = cluster.getNodes();
 		
 		if (nodes.length == 0) {
@@ -42,6 +50,10 @@ public final class BatchNode {
 		
 		int nodeCount = nodes.length;
 		int keysPerNode = keys.length / nodeCount + 10;
+		
+		if (maxKeys > 0 && keysPerNode > maxKeys) {
+			keysPerNode = maxKeys;
+		}
 
 		// Split keys by server node.
 		List<BatchNode> batchNodes = new ArrayList<BatchNode>(nodeCount+1);
@@ -55,10 +67,10 @@ public final class BatchNode {
 			batchNode = findBatchNode(batchNodes, node);
 			
 			if (batchNode == null) {
-				batchNodes.add(new BatchNode(node, keysPerNode, key));
+				batchNodes.add(new BatchNode(node, keysPerNode, maxKeys, key, i));
 			}
 			else {
-				batchNode.addKey(key);
+				batchNode.addKey(key, i);
 			}
 		}
 		return batchNodes;
@@ -67,30 +79,35 @@ public final class BatchNode {
 	public final Node node;
 	public final List<BatchNamespace> batchNamespaces;
 	public final int keyCapacity;
+	private final int maxKeys;
 
-	public BatchNode(Node node, int keyCapacity, Key key) {
+	public BatchNode(Node node, int keyCapacity, int maxKeys, Key key, int index) {
 		this.node = node;
 		this.keyCapacity = keyCapacity;
+		this.maxKeys = maxKeys;
 		batchNamespaces = new ArrayList<BatchNamespace>(4);
-		batchNamespaces.add(new BatchNamespace(key.namespace, keyCapacity, key));
+		batchNamespaces.add(new BatchNamespace(key.namespace, keyCapacity, key, index));
 	}
 	
-	public void addKey(Key key) {
+	public void addKey(Key key, int index) {
 		BatchNamespace batchNamespace = findNamespace(key.namespace);
 		
 		if (batchNamespace == null) {
-			batchNamespaces.add(new BatchNamespace(key.namespace, keyCapacity, key));
+			batchNamespaces.add(new BatchNamespace(key.namespace, keyCapacity, key, index));
 		}
 		else {
-			batchNamespace.keys.add(key);
+			batchNamespace.add(key, index);
 		}
 	}
 	
 	private BatchNamespace findNamespace(String ns) {
-		for (BatchNamespace batchNamespace : batchNamespaces) {
+		// Search backwards because only the most recent chunk of a namespace can have room.
+		for (int i = batchNamespaces.size() - 1; i >= 0; i--) {
+			BatchNamespace batchNamespace = batchNamespaces.get(i);
+			
 			// Note: use both pointer equality and equals.
 			if (batchNamespace.namespace == ns || batchNamespace.namespace.equals(ns)) {
-				return batchNamespace;
+				return (maxKeys > 0 && batchNamespace.keys.size() >= maxKeys)? null : batchNamespace;
 			}
 		}
 		return null;
@@ -109,11 +126,22 @@ public final class BatchNode {
 	public static final class BatchNamespace {
 		public final String namespace;
 		public final ArrayList<Key> keys;
+		
+		/**
+		 * Maps returned digests to positions in the caller's key array.
+		 */
+		public final DigestTable digestTable;
 
-		public BatchNamespace(String namespace, int capacity, Key key) {
+		public BatchNamespace(String namespace, int capacity, Key key, int index) {
 			this.namespace = namespace;
 			keys = new ArrayList<Key>(capacity);
+			digestTable = new DigestTable(capacity);
+			add(key, index);
+		}
+		
+		private void add(Key key, int index) {
 			keys.add(key);
+			digestTable.add(key.digest, index);
 		}
 	}	
 }
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.command;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.BatchRead;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.cluster.Cluster;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.command.BatchNode.BatchNamespace;
+import com.aerospike.client.policy.Policy;
+
+/**
+ * Batch read where each key has its own bin names.  The batch protocol allows one bin list
+ * per command, so each node and namespace command reads the union of bins requested for 
+ * its own keys.  Each record is then reduced to the bins requested for its key.
+ */
+public final class BatchReadExecutor {
+
+	public BatchReadExecutor(Cluster cluster, Policy policy, List<BatchRead> records) throws AerospikeException {
+		int size = records.size();
+		Key[] keys = new Key[size];
+		
+		for (int i = 0; i < size; i++) {
+			keys[i] = records.get(i).key;
+		}
+		
+		Record[] results = new Record[size];
+		new BatchExecutor(cluster, policy, keys, results, records);
+		
+		for (int i = 0; i < size; i++) {
+			BatchRead record = records.get(i);
+			Record result = results[i];
+			
+			if (result == null || record.readAllBins) {
+				record.record = result;
+			}
+			else {
+				record.record = filter(result, record.binNames);
+			}
+		}
+	}
+	
+	/**
+	 * Create command that reads the union of bins requested for the keys of one node and 
+	 * namespace.  Other commands of the same batch are not affected by these keys.
+	 */
+	static BatchCommandGet createCommand(Node node, BatchNamespace batchNamespace, Policy policy, Record[] results, List<BatchRead> records) {
+		DigestTable table = batchNamespace.digestTable;
+		int size = table.size();
+		HashSet<String> binNames = null;
+		
+		for (int i = 0; i < size; i++) {
+			BatchRead record = records.get(table.getIndex(i));
+			
+			if (record.readAllBins) {
+				return new BatchCommandGet(node, batchNamespace, policy, null, results, Command.INFO1_READ | Command.INFO1_GET_ALL);
+			}
+			
+			if (record.binNames != null) {
+				if (binNames == null) {
+					binNames = new HashSet<String>();
+				}
+				
+				for (String binName : record.binNames) {
+					binNames.add(binName);
+				}
+			}
+		}
+		
+		if (binNames != null) {
+			return new BatchCommandGet(node, batchNamespace, policy, binNames, results, Command.INFO1_READ);
+		}
+		return new BatchCommandGet(node, batchNamespace, policy, null, results, Command.INFO1_READ | Command.INFO1_NOBINDATA);
+	}
+	
+	private static Record filter(Record record, String[] binNames) {
+		if (binNames == null) {
+			return new Record(null, null, record.generation, record.expiration);
+		}
+
+		List<Map<String,Object>> duplicates = null;
+		
+		if (record.duplicates != null) {
+			duplicates = new ArrayList<Map<String,Object>>(record.duplicates.size());
+			
+			for (Map<String,Object> duplicate : record.duplicates) {
+				Map<String,Object> map = filter(duplicate, binNames);
+				
+				if (map != null) {
+					duplicates.add(map);
+				}
+			}
+		}
+		return new Record(filter(record.bins, binNames), duplicates, record.generation, record.expiration);
+	}
+	
+	private static Map<String,Object> filter(Map<String,Object> bins, String[] binNames) {
+		if (bins == null) {
+			return null;
+		}
+		
+		Map<String,Object> map = null;
+		
+		for (String binName : binNames) {
+			Object value = bins.get(binName);
+			
+			if (value != null) {
+				if (map == null) {
+					map = new HashMap<String,Object>();
+				}
+				map.put(binName, value);
+			}
+		}
+		return map;
+	}
+}
@@ -0,0 +1,369 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.command;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Bin;
+import com.aerospike.client.ExecuteResult;
+import com.aerospike.client.Key;
+import com.aerospike.client.Operation;
+import com.aerospike.client.RecordResult;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.Value;
+import com.aerospike.client.cluster.Cluster;
+import com.aerospike.client.command.BatchNode.BatchNamespace;
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.policy.WritePolicy;
+import com.aerospike.client.util.Packer;
+
+/**
+ * Write, operate or execute a user defined function on multiple keys.  The wire protocol has 
+ * no multi-record write, so keys are grouped by node and each group is written with single 
+ * record commands.  Nodes are written in parallel.  Each node's keys are also split into lanes 
+ * that run in parallel, each on its own connection:
+ * <ul>
+ * <li>When {@link com.aerospike.client.policy.Policy#maxBatchKeys} is zero, a node's keys are 
+ * divided evenly over {@link com.aerospike.client.policy.Policy#maxConcurrentBatchCommands} lanes, 
+ * or {@link #DEFAULT_NODE_LANES} lanes if that is also zero.</li>
+ * <li>Otherwise, keys are split into groups of maxBatchKeys and up to maxConcurrentBatchCommands 
+ * groups (all groups if zero) run in parallel against the same node.</li>
+ * </ul>
+ * <p>
+ * Every key receives its own result code.  Server errors and timeouts do not stop other keys.
+ */
+public final class BatchWriteExecutor {
+	/**
+	 * Default number of parallel lanes per node when neither maxBatchKeys nor 
+	 * maxConcurrentBatchCommands is set.
+	 */
+	public static final int DEFAULT_NODE_LANES = 16;
+	
+	private final Cluster cluster;
+	private final Key[] keys;
+	private WritePolicy writePolicy;
+	private Bin[][] bins;
+	private Operation[][] operations;
+	private Policy udfPolicy;
+	private String packageName;
+	private String functionName;
+	private byte[] argBytes;
+	private int[] resultCodes;
+	private RecordResult[] results;
+	private ExecuteResult[] executeResults;
+	private CountDownLatch completed;
+	private volatile RuntimeException exception;
+	private volatile boolean cancelled;
+	
+	/**
+	 * Write bins[i] to keys[i] and store result codes.
+	 */
+	public BatchWriteExecutor(Cluster cluster, WritePolicy policy, Key[] keys, Bin[][] bins, int[] resultCodes) 
+		throws AerospikeException {
+		this.cluster = cluster;
+		this.keys = keys;
+		this.writePolicy = (policy == null)? new WritePolicy() : policy;
+		this.bins = bins;
+		this.resultCodes = resultCodes;
+		execute(writePolicy, bins.length);
+	}
+
+	/**
+	 * Perform operations[i] on keys[i] and store results.
+	 */
+	public BatchWriteExecutor(Cluster cluster, WritePolicy policy, Key[] keys, Operation[][] operations, RecordResult[] results) 
+		throws AerospikeException {
+		this.cluster = cluster;
+		this.keys = keys;
+		this.writePolicy = (policy == null)? new WritePolicy() : policy;
+		this.operations = operations;
+		this.results = results;
+		execute(writePolicy, operations.length);
+	}
+
+	/**
+	 * Execute user defined function on each key and store results.
+	 * Arguments are packed once and shared by all commands.
+	 */
+	public BatchWriteExecutor(
+		Cluster cluster,
+		Policy policy,
+		Key[] keys,
+		String packageName,
+		String functionName,
+		Value[] args,
+		ExecuteResult[] executeResults
+	) throws AerospikeException {
+		this.cluster = cluster;
+		this.keys = keys;
+		this.udfPolicy = (policy == null)? new Policy() : policy;
+		this.packageName = packageName;
+		this.functionName = functionName;
+		this.argBytes = Packer.pack(args);
+		this.executeResults = executeResults;
+		execute(udfPolicy, keys.length);
+	}
+
+	private void execute(Policy policy, int length) throws AerospikeException {
+		if (length != keys.length) {
+			throw new AerospikeException(ResultCode.PARAMETER_ERROR, "Key and value array lengths differ: " + keys.length + ',' + length);
+		}
+		
+		List<BatchNode> batchNodes = BatchNode.generateList(cluster, keys, policy.maxBatchKeys);
+		ArrayList<Lane> lanes = new ArrayList<Lane>(batchNodes.size() * 2);
+		int maxConcurrent = policy.maxConcurrentBatchCommands;
+		
+		for (BatchNode batchNode : batchNodes) {
+			if (policy.maxBatchKeys > 0) {
+				addGroupLanes(lanes, batchNode, maxConcurrent);
+			}
+			else {
+				addSplitLanes(lanes, batchNode, (maxConcurrent > 0)? maxConcurrent : DEFAULT_NODE_LANES);
+			}
+		}
+		
+		int last = lanes.size() - 1;
+		
+		if (last < 0) {
+			// No keys.
+			return;
+		}
+		completed = new CountDownLatch(lanes.size());
+		
+		// Run last lane on the calling thread.
+		ExecutorService threadPool = cluster.getThreadPool();
+
+		for (int i = 0; i < last; i++) {
+			threadPool.execute(lanes.get(i));
+		}
+		lanes.get(last).run();
+		
+		waitTillComplete();
+		
+		if (exception != null) {
+			throw exception;
+		}
+	}
+	
+	/**
+	 * Distribute key groups of the same node over at most maxConcurrent lanes.
+	 */
+	private void addGroupLanes(ArrayList<Lane> lanes, BatchNode batchNode, int maxConcurrent) {
+		int begin = lanes.size();
+		int count = 0;
+		
+		for (BatchNamespace batchNamespace : batchNode.batchNamespaces) {
+			DigestTable table = batchNamespace.digestTable;
+			
+			if (maxConcurrent > 0 && count >= maxConcurrent) {
+				lanes.get(begin + count % maxConcurrent).add(table, 0, table.size());
+			}
+			else {
+				Lane lane = new Lane();
+				lane.add(table, 0, table.size());
+				lanes.add(lane);
+			}
+			count++;
+		}
+	}
+
+	/**
+	 * Divide all keys of a node evenly over the given number of lanes.
+	 */
+	private void addSplitLanes(ArrayList<Lane> lanes, BatchNode batchNode, int laneCount) {
+		int total = 0;
+		
+		for (BatchNamespace batchNamespace : batchNode.batchNamespaces) {
+			total += batchNamespace.digestTable.size();
+		}
+		
+		if (laneCount > total) {
+			laneCount = total;
+		}
+		
+		if (laneCount <= 0) {
+			return;
+		}
+		
+		int begin = lanes.size();
+		
+		for (int i = 0; i < laneCount; i++) {
+			lanes.add(new Lane());
+		}
+		
+		// Fill lanes in order with contiguous ranges.  The first (total % laneCount) 
+		// lanes receive one extra key.
+		int laneIndex = 0;
+		int laneRemaining = total / laneCount + ((total % laneCount > 0)? 1 : 0);
+		
+		for (BatchNamespace batchNamespace : batchNode.batchNamespaces) {
+			DigestTable table = batchNamespace.digestTable;
+			int size = table.size();
+			int offset = 0;
+			
+			while (offset < size) {
+				int count = Math.min(size - offset, laneRemaining);
+				lanes.get(begin + laneIndex).add(table, offset, offset + count);
+				offset += count;
+				laneRemaining -= count;
+				
+				if (laneRemaining == 0 && laneIndex + 1 < laneCount) {
+					laneIndex++;
+					laneRemaining = total / laneCount + ((laneIndex < total % laneCount)? 1 : 0);
+				}
+			}
+		}
+	}
+	
+	private void write(int index) {
+		if (cancelled) {
+			setResultCode(index, ResultCode.COMMAND_CANCELLED);
+			return;
+		}
+		
+		try {
+			if (bins != null) {
+				WriteCommand command = new WriteCommand(cluster, writePolicy, keys[index], bins[index], Operation.Type.WRITE);
+				resultCodes[index] = command.executeResultCode();
+			}
+			else if (operations != null) {
+				OperateCommand command = new OperateCommand(cluster, writePolicy, keys[index], operations[index]);
+				int resultCode = command.executeResultCode();
+				results[index] = new RecordResult(command.getRecord(), resultCode);
+			}
+			else {
+				executeResults[index] = executeUdf(index);
+			}
+		}
+		catch (AerospikeException ae) {
+			// Exceptions without a result code must not be reported as success.
+			int resultCode = ae.getResultCode();
+			setResultCode(index, (resultCode != ResultCode.OK)? resultCode : ResultCode.CLIENT_ERROR);
+		}
+		
+		if (Thread.currentThread().isInterrupted()) {
+			// Calling thread was interrupted.  Cancel remaining keys.
+			cancelled = true;
+		}
+	}
+	
+	private ExecuteResult executeUdf(int index) throws AerospikeException {
+		ExecuteCommand command = new ExecuteCommand(cluster, udfPolicy, keys[index], packageName, functionName, argBytes);
+		int resultCode;
+		
+		try {
+			resultCode = command.executeResultCode();
+		}
+		catch (AerospikeException.UdfError ue) {
+			// Function failed on the server.  Keep the server's code and message.
+			return new ExecuteResult(null, ue.getResultCode(), ue.getUdfMessage());
+		}
+		
+		if (resultCode != ResultCode.OK) {
+			return new ExecuteResult(null, resultCode, null);
+		}
+		
+		try {
+			return new ExecuteResult(ExecuteCommand.getResult(command.getRecord()), ResultCode.OK, null);
+		}
+		catch (AerospikeException ae) {
+			// Function failed on the server.
+			return new ExecuteResult(null, ResultCode.UDF_BAD_RESPONSE, ae.getMessage());
+		}
+	}
+	
+	private void setResultCode(int index, int resultCode) {
+		if (bins != null) {
+			resultCodes[index] = resultCode;
+		}
+		else if (operations != null) {
+			results[index] = new RecordResult(null, resultCode);
+		}
+		else {
+			executeResults[index] = new ExecuteResult(null, resultCode, null);
+		}
+	}
+
+	private void waitTillComplete() {
+		boolean interrupted = false;
+		
+		while (true) {
+			try {
+				completed.await();
+				break;
+			}
+			catch (InterruptedException ie) {
+				// Keys that have not been written yet are cancelled.
+				interrupted = true;
+				cancelled = true;
+			}
+		}
+		
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Key ranges written in sequence on one thread.
+	 */
+	private final class Lane implements Runnable {
+		private final ArrayList<DigestTable> tables = new ArrayList<DigestTable>(4);
+		private int[] ranges = new int[8];
+		
+		private void add(DigestTable table, int begin, int end) {
+			int offset = tables.size() * 2;
+			
+			if (offset + 2 > ranges.length) {
+				ranges = Arrays.copyOf(ranges, ranges.length * 2);
+			}
+			tables.add(table);
+			ranges[offset] = begin;
+			ranges[offset + 1] = end;
+		}
+		
+		public void run() {
+			try {
+				for (int t = 0; t < tables.size(); t++) {
+					DigestTable table = tables.get(t);
+					int end = ranges[t * 2 + 1];
+					
+					for (int i = ranges[t * 2]; i < end; i++) {
+						write(table.getIndex(i));
+					}
+				}
+			}
+			catch (RuntimeException re) {
+				exception = re;
+				cancelled = true;
+			}
+			finally {
+				completed.countDown();
+			}
+		}
+	}
+}
@@ -25,9 +25,11 @@ import java.io.ByteArrayInputStream;
 import java.io.ObjectInputStream;
 import java.io.UnsupportedEncodingException;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import com.aerospike.client.AerospikeException;
+import com.aerospike.client.util.ThreadLocalData;
 import com.aerospike.client.util.Unpacker;
 
 public final class Buffer {
@@ -59,6 +61,93 @@ public final class Buffer {
 		}
 	}
 	
+	/**
+	 * Decode particle directly from a socket byte buffer using absolute gets, so the 
+	 * response does not have to be copied to a heap buffer first.  Blobs are copied once
+	 * into their result array.  Types that need contiguous bytes for decoding are copied
+	 * into thread local scratch space.
+	 */
+	public static Object bufferToParticle(int type, ByteBuffer buf, int offset, int len)
+		throws AerospikeException {
+		
+		switch (type) {
+		case ParticleType.INTEGER:
+			if (len <= 8) {
+				return bufferToNumber(buf, offset, len);
+			}
+			break;
+		
+		case ParticleType.BLOB:
+			byte[] bytes = new byte[len];
+			bufferToBytes(buf, offset, bytes, 0, len);
+			return bytes;
+			
+		case ParticleType.STRING:
+		case ParticleType.JBLOB:
+		case ParticleType.LIST:
+		case ParticleType.MAP:
+			break;
+			
+		default:
+			return null;
+		}
+		
+		byte[] scratch = ThreadLocalData.getBuffer();
+		
+		if (len > scratch.length) {
+			scratch = ThreadLocalData.resizeBuffer(len);
+		}
+		bufferToBytes(buf, offset, scratch, 0, len);
+		return bytesToParticle(type, scratch, 0, len);
+	}
+	
+	/**
+	 * Decode UTF8 string directly from a socket byte buffer.
+	 */
+	public static String bufferToUtf8String(ByteBuffer buf, int offset, int len) {
+		byte[] scratch = ThreadLocalData.getBuffer();
+		
+		if (len > scratch.length) {
+			scratch = ThreadLocalData.resizeBuffer(len);
+		}
+		bufferToBytes(buf, offset, scratch, 0, len);
+		return utf8ToString(scratch, 0, len);
+	}
+	
+	/**
+	 * Copy bytes at absolute buffer offset without changing the buffer's position.
+	 */
+	public static void bufferToBytes(ByteBuffer buf, int offset, byte[] dst, int dstOffset, int len) {
+		int position = buf.position();
+		buf.position(offset);
+		buf.get(dst, dstOffset, len);
+		buf.position(position);
+	}
+	
+	private static Object bufferToNumber(ByteBuffer buf, int offset, int len) {
+		if (len == 0)
+			return new Integer(0);
+
+		long val;
+		
+		if (len == 8) {
+			val = buf.getLong(offset);
+		}
+		else {
+			val = 0;
+			
+			for (int i = 0; i < len; i++) {
+				val <<= 8;
+				val |= buf.get(offset + i) & 0xFF;
+			}
+		}
+
+		if (val <= Integer.MAX_VALUE && val >= Integer.MIN_VALUE)
+			return new Integer((int) val);
+		
+		return new Long(val);
+	}
+	
 	/*
 	private static Object parseList(byte[] buf, int offset, int len) throws AerospikeException {
 		int limit = offset + len;
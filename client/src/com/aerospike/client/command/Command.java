@@ -21,6 +21,8 @@
  ******************************************************************************/
 package com.aerospike.client.command;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.HashSet;
 import java.util.List;
 
@@ -29,10 +31,15 @@ import com.aerospike.client.Bin;
 import com.aerospike.client.Key;
 import com.aerospike.client.Operation;
 import com.aerospike.client.Value;
+import com.aerospike.client.Value.ByteSegmentValue;
+import com.aerospike.client.Value.BytesValue;
+import com.aerospike.client.cluster.Connection;
 import com.aerospike.client.command.BatchNode.BatchNamespace;
 import com.aerospike.client.policy.Policy;
 import com.aerospike.client.policy.ScanPolicy;
 import com.aerospike.client.policy.WritePolicy;
+import com.aerospike.client.query.Filter;
+import com.aerospike.client.query.Statement;
 import com.aerospike.client.util.Packer;
 import com.aerospike.client.util.ThreadLocalData;
 
@@ -61,9 +68,16 @@ public abstract class Command {
 	public static final int DIGEST_SIZE = 20;
 	public static final long CL_MSG_VERSION = 2L;
 	public static final long AS_MSG_TYPE = 3L;
+	
+	// Byte array bin values at least this size are not copied into the command buffer.
+	// They are written to the socket directly from the user's array instead.
+	public static final int GATHER_THRESHOLD = 16 * 1024;
 
 	protected byte[] dataBuffer;
 	protected int dataOffset;
+	private Segment[] segments;
+	private int segmentCount;
+	private int segmentSize;
 	
 	public final void setWrite(WritePolicy policy, Operation.Type operation, Key key, Bin[] bins) throws AerospikeException {
 		begin();
@@ -214,9 +228,15 @@ public abstract class Command {
 
 	public final void setUdf(Key key, String packageName, String functionName, Value[] args) 
 		throws AerospikeException {
+		setUdf(key, packageName, functionName, Packer.pack(args));
+	}
+
+	/**
+	 * Write user defined function command with arguments that are already packed.
+	 */
+	public final void setUdf(Key key, String packageName, String functionName, byte[] argBytes) {
 		begin();
 		int fieldCount = estimateKeySize(key);		
-		byte[] argBytes = Packer.pack(args);
 		fieldCount += estimateUdfSize(packageName, functionName, argBytes);
 		
 		sizeBuffer();
@@ -287,6 +307,147 @@ public abstract class Command {
 		end();
 	}
 	
+	public final void setQuery(Policy policy, Statement statement) throws AerospikeException {
+		String namespace = statement.getNamespace();
+		String indexName = statement.getIndexName();
+		String setName = statement.getSetName();
+		Filter[] filters = statement.getFilters();
+		String[] binNames = statement.getBinNames();
+		int taskId = statement.getTaskId();
+		String packageName = statement.getPackageName();
+		String functionName = statement.getFunctionName();
+		Value[] functionArgs = statement.getFunctionArgs();
+		byte[] functionArgBuffer = null;
+		int fieldCount = 0;
+		int filterSize = 0;
+		int binNameSize = 0;
+		
+		begin();
+		
+		if (namespace != null) {
+			dataOffset += Buffer.estimateSizeUtf8(namespace) + FIELD_HEADER_SIZE;
+			fieldCount++;
+		}
+		
+		if (indexName != null) {
+			dataOffset += Buffer.estimateSizeUtf8(indexName) + FIELD_HEADER_SIZE;
+			fieldCount++;
+		}
+
+		if (setName != null) {
+			dataOffset += Buffer.estimateSizeUtf8(setName) + FIELD_HEADER_SIZE;
+			fieldCount++;
+		}
+		
+		if (filters != null) {
+			dataOffset += FIELD_HEADER_SIZE;
+			filterSize++;  // num filters
+			
+			for (Filter filter : filters) {
+				filterSize += filter.estimateSize();
+			}
+			dataOffset += filterSize;
+			fieldCount++;
+		}
+		else {
+			// Calling query with no filters is more efficiently handled by a primary index scan. 
+			// Estimate scan options size.
+			dataOffset += 2 + FIELD_HEADER_SIZE;
+			fieldCount++;
+		}
+		
+		if (binNames != null) {
+			dataOffset += FIELD_HEADER_SIZE;
+			binNameSize++;  // num bin names
+			
+			for (String binName : binNames) {
+				binNameSize += Buffer.estimateSizeUtf8(binName) + 1;
+			}
+			dataOffset += binNameSize;
+			fieldCount++;
+		}
+
+		if (taskId > 0) {
+			dataOffset += 8 + FIELD_HEADER_SIZE;
+			fieldCount++;
+		}
+		
+		if (functionName != null) {
+			dataOffset += FIELD_HEADER_SIZE + 1;  // udf type
+			dataOffset += Buffer.estimateSizeUtf8(packageName) + FIELD_HEADER_SIZE;
+			dataOffset += Buffer.estimateSizeUtf8(functionName) + FIELD_HEADER_SIZE;
+			
+			if (functionArgs.length > 0) {
+				functionArgBuffer = Packer.pack(functionArgs);
+			}
+			else {
+				functionArgBuffer = new byte[0];
+			}
+			dataOffset += FIELD_HEADER_SIZE + functionArgBuffer.length;			
+			fieldCount += 4;
+		}
+
+		sizeBuffer();
+		
+		byte readAttr = INFO1_READ;		
+		writeHeader(readAttr, 0, fieldCount, 0);
+				
+		if (namespace != null) {
+			writeField(namespace, FieldType.NAMESPACE);
+		}
+		
+		if (indexName != null) {
+			writeField(indexName, FieldType.INDEX_NAME);
+		}
+
+		if (setName != null) {
+			writeField(setName, FieldType.TABLE);
+		}
+		
+		if (filters != null) {
+			writeFieldHeader(filterSize, FieldType.INDEX_RANGE);
+	        dataBuffer[dataOffset++] = (byte)filters.length;
+			
+			for (Filter filter : filters) {
+				dataOffset = filter.write(dataBuffer, dataOffset);
+			}
+		}
+		else {
+			// Calling query with no filters is more efficiently handled by a primary index scan. 
+			writeFieldHeader(2, FieldType.SCAN_OPTIONS);
+			byte priority = (byte)policy.priority.ordinal();
+			priority <<= 4;			
+			dataBuffer[dataOffset++] = priority;
+			dataBuffer[dataOffset++] = (byte)100;
+		}
+		
+		if (binNames != null) {
+			writeFieldHeader(binNameSize, FieldType.QUERY_BINLIST);
+	        dataBuffer[dataOffset++] = (byte)binNames.length;
+
+			for (String binName : binNames) {
+				int len = Buffer.stringToUtf8(binName, dataBuffer, dataOffset + 1);
+				dataBuffer[dataOffset] = (byte)len;
+				dataOffset += len + 1;
+			}
+		}
+		
+		if (taskId > 0) {
+			writeFieldHeader(8, FieldType.TRAN_ID);
+			Buffer.longToBytes(taskId, dataBuffer, dataOffset);
+			dataOffset += 8;
+		}
+		
+		if (functionName != null) {
+			writeFieldHeader(1, FieldType.UDF_OP);
+			dataBuffer[dataOffset++] = (statement.isReturnData())? (byte)1 : (byte)2;
+			writeField(packageName, FieldType.UDF_PACKAGE_NAME);
+			writeField(functionName, FieldType.UDF_FUNCTION);
+			writeField(functionArgBuffer, FieldType.UDF_ARGLIST);
+		}
+		end();
+	}
+
 	public final void setScan(ScanPolicy policy, String namespace, String setName, String[] binNames) {
 		begin();
 		int fieldCount = 0;
@@ -375,12 +536,23 @@ public abstract class Command {
 
 	private final void estimateOperationSize(Bin bin) throws AerospikeException {
 		dataOffset += Buffer.estimateSizeUtf8(bin.name) + OPERATION_HEADER_SIZE;
-		dataOffset += bin.value.estimateSize();
+		dataOffset += estimateValueSize(bin.value);
 	}
 
 	private final void estimateOperationSize(Operation operation) throws AerospikeException {
 		dataOffset += Buffer.estimateSizeUtf8(operation.binName) + OPERATION_HEADER_SIZE;
-		dataOffset += operation.binValue.estimateSize();
+		dataOffset += estimateValueSize(operation.binValue);
+	}
+	
+	private static int estimateValueSize(Value value) throws AerospikeException {
+		int size = value.estimateSize();
+		
+		// Gathered values do not occupy space in the command buffer.
+		return (size >= GATHER_THRESHOLD && isGatherable(value))? 0 : size;
+	}
+
+	private static boolean isGatherable(Value value) {
+		return value instanceof BytesValue || value instanceof ByteSegmentValue;
 	}
 
 	private final void estimateOperationSize(String binName) {
@@ -503,7 +675,8 @@ public abstract class Command {
 
 	private final void writeOperation(Bin bin, Operation.Type operation) throws AerospikeException {
         int nameLength = Buffer.stringToUtf8(bin.name, dataBuffer, dataOffset + OPERATION_HEADER_SIZE);
-        int valueLength = bin.value.write(dataBuffer, dataOffset + OPERATION_HEADER_SIZE + nameLength);
+        int valueOffset = dataOffset + OPERATION_HEADER_SIZE + nameLength;
+        int valueLength = writeValue(bin.value, valueOffset);
          
         Buffer.intToBytes(nameLength + valueLength + 4, dataBuffer, dataOffset);
 		dataOffset += 4;
@@ -511,12 +684,13 @@ public abstract class Command {
         dataBuffer[dataOffset++] = (byte) bin.value.getType();
         dataBuffer[dataOffset++] = (byte) 0;
         dataBuffer[dataOffset++] = (byte) nameLength;
-        dataOffset += nameLength + valueLength;
+        dataOffset = isGathered(valueOffset)? valueOffset : valueOffset + valueLength;
 	}
 		
 	private final void writeOperation(Operation operation) throws AerospikeException {
         int nameLength = Buffer.stringToUtf8(operation.binName, dataBuffer, dataOffset + OPERATION_HEADER_SIZE);
-        int valueLength = operation.binValue.write(dataBuffer, dataOffset + OPERATION_HEADER_SIZE + nameLength);
+        int valueOffset = dataOffset + OPERATION_HEADER_SIZE + nameLength;
+        int valueLength = writeValue(operation.binValue, valueOffset);
          
         Buffer.intToBytes(nameLength + valueLength + 4, dataBuffer, dataOffset);
 		dataOffset += 4;
@@ -524,7 +698,43 @@ public abstract class Command {
         dataBuffer[dataOffset++] = (byte) operation.binValue.getType();
         dataBuffer[dataOffset++] = (byte) 0;
         dataBuffer[dataOffset++] = (byte) nameLength;
-        dataOffset += nameLength + valueLength;
+        dataOffset = isGathered(valueOffset)? valueOffset : valueOffset + valueLength;
+	}
+
+	/**
+	 * Write value into command buffer or, if the value is a large byte array, 
+	 * record a reference to the user's array at this buffer position.
+	 * Return the value's wire length.
+	 */
+	private final int writeValue(Value value, int offset) throws AerospikeException {
+		int size = value.estimateSize();
+		
+		if (size < GATHER_THRESHOLD || ! isGatherable(value)) {
+			return value.write(dataBuffer, offset);
+		}
+		
+		if (segments == null) {
+			segments = new Segment[4];
+		}
+		else if (segmentCount == segments.length) {
+			Segment[] tmp = new Segment[segmentCount * 2];
+			System.arraycopy(segments, 0, tmp, 0, segmentCount);
+			segments = tmp;
+		}
+		
+		if (value instanceof BytesValue) {
+			segments[segmentCount++] = new Segment((byte[])value.getObject(), 0, size, offset);
+		}
+		else {
+			ByteSegmentValue v = (ByteSegmentValue)value;
+			segments[segmentCount++] = new Segment(v.getBytes(), v.getOffset(), size, offset);
+		}
+		segmentSize += size;
+		return size;
+	}
+	
+	private final boolean isGathered(int position) {
+		return segmentCount > 0 && segments[segmentCount-1].position == position;
 	}
 
 	private final void writeOperation(String name, Operation.Type operation) {
@@ -568,6 +778,8 @@ public abstract class Command {
 	
 	protected final void begin() {
 		dataOffset = MSG_TOTAL_HEADER_SIZE;
+		segmentCount = 0;
+		segmentSize = 0;
 	}
 
 	protected final void sizeBuffer() {
@@ -585,11 +797,65 @@ public abstract class Command {
 	}
 
 	protected final void end() {
-		// Write total size of message which is the current offset.
-		long size = (dataOffset - 8) | (CL_MSG_VERSION << 56) | (AS_MSG_TYPE << 48);
+		// Write total size of message which is the current offset plus gathered values.
+		long size = (dataOffset + segmentSize - 8) | (CL_MSG_VERSION << 56) | (AS_MSG_TYPE << 48);
 		Buffer.longToBytes(size, dataBuffer, 0);
 	}
 	
+	/**
+	 * Return total command size, including values that are not stored in the command buffer.
+	 */
+	protected final int getCommandSize() {
+		return dataOffset + segmentSize;
+	}
+	
+	/**
+	 * Send command to socket.  Large byte array values are written directly from the user's arrays.
+	 */
+	protected final void writeCommand(Connection conn) throws IOException {
+		int pos = 0;
+		
+		for (int i = 0; i < segmentCount; i++) {
+			Segment segment = segments[i];
+			conn.write(dataBuffer, pos, segment.position - pos);
+			conn.write(segment.bytes, segment.offset, segment.length);
+			pos = segment.position;
+		}
+		conn.write(dataBuffer, pos, dataOffset - pos);
+	}
+	
+	/**
+	 * Copy command to byte buffer.  Large byte array values are copied directly from the user's arrays.
+	 */
+	protected final void writeCommand(ByteBuffer byteBuffer) {
+		int pos = 0;
+		
+		for (int i = 0; i < segmentCount; i++) {
+			Segment segment = segments[i];
+			byteBuffer.put(dataBuffer, pos, segment.position - pos);
+			byteBuffer.put(segment.bytes, segment.offset, segment.length);
+			pos = segment.position;
+		}
+		byteBuffer.put(dataBuffer, pos, dataOffset - pos);
+	}
+	
 	protected abstract Policy getPolicy();
 	protected abstract void writeBuffer() throws AerospikeException;
+	
+	/**
+	 * User byte array that is sent after the command buffer bytes preceding position.
+	 */
+	private static final class Segment {
+		private final byte[] bytes;
+		private final int offset;
+		private final int length;
+		private final int position;
+		
+		private Segment(byte[] bytes, int offset, int length, int position) {
+			this.bytes = bytes;
+			this.offset = offset;
+			this.length = length;
+			this.position = position;
+		}
+	}
 }
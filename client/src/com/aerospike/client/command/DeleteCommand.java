@@ -54,12 +54,14 @@ public final class DeleteCommand extends SingleCommand {
 		// Read header.		
 		conn.readFully(dataBuffer, MSG_TOTAL_HEADER_SIZE);
 		int resultCode = dataBuffer[13] & 0xFF;
+		emptySocket(conn);
 	
 	    if (resultCode != 0 && resultCode != ResultCode.KEY_NOT_FOUND_ERROR) {
-	    	throw new AerospikeException(resultCode);        	
+	    	setResultCode(resultCode);
+	    	return;
 	    }        	
 		existed = resultCode == 0;
-		emptySocket(conn);
+		this.resultCode = resultCode;
 	}
 	
 	public boolean existed() {
@@ -0,0 +1,251 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.command;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Open addressing table that maps record digests to positions in the caller's key array.
+ * Used to correlate batch responses with requested keys without allocating a key per 
+ * response.  Duplicate digests are chained and handed out in the order they were added, 
+ * one per response.
+ * <p>
+ * A table is owned by a single batch command and is not thread safe.
+ */
+public final class DigestTable {
+	private byte[][] digests;
+	private int[] indexes;
+	private int[] next;
+	private int[] cursor;
+	private int[] slots;
+	private int mask;
+	private int size;
+	
+	public DigestTable(int capacity) {
+		if (capacity < 4) {
+			capacity = 4;
+		}
+		digests = new byte[capacity][];
+		indexes = new int[capacity];
+		next = new int[capacity];
+		cursor = new int[capacity];
+		allocateSlots(capacity);
+	}
+	
+	/**
+	 * Add digest that resolves to the given key array position.
+	 */
+	public void add(byte[] digest, int index) {
+		if (size == digests.length) {
+			grow();
+		}
+		
+		int entry = size++;
+		digests[entry] = digest;
+		indexes[entry] = index;
+		next[entry] = -1;
+		cursor[entry] = entry;
+		
+		int slot = hash(digest, 0, digest.length) & mask;
+		
+		while (true) {
+			int head = slots[slot] - 1;
+			
+			if (head < 0) {
+				slots[slot] = entry + 1;
+				return;
+			}
+			
+			if (equals(digests[head], digest, 0, digest.length)) {
+				// Duplicate key.  Append to end of chain.
+				while (next[head] >= 0) {
+					head = next[head];
+				}
+				next[head] = entry;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+	
+	/**
+	 * Return key array position of digest stored in buf, or -1 if digest was not requested.
+	 */
+	public int get(byte[] buf, int offset, int length) {
+		int slot = hash(buf, offset, length) & mask;
+		int head;
+		
+		while ((head = slots[slot] - 1) >= 0) {
+			if (equals(digests[head], buf, offset, length)) {
+				return nextIndex(head);
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Return key array position of digest stored in buf, or -1 if digest was not requested.
+	 * Reads with absolute gets, so the buffer position is not changed.
+	 */
+	public int get(ByteBuffer buf, int offset, int length) {
+		int slot = hash(buf, offset, length) & mask;
+		int head;
+		
+		while ((head = slots[slot] - 1) >= 0) {
+			if (equals(digests[head], buf, offset, length)) {
+				return nextIndex(head);
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Return number of digests added, including duplicates.
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Return key array position of the digest added at the given order.
+	 */
+	public int getIndex(int entry) {
+		return indexes[entry];
+	}
+
+	private int nextIndex(int head) {
+		int entry = cursor[head];
+		
+		// The last duplicate is returned again if the server sends more responses.
+		if (next[entry] >= 0) {
+			cursor[head] = next[entry];
+		}
+		return indexes[entry];
+	}
+	
+	private void grow() {
+		int capacity = digests.length * 2;
+		byte[][] oldDigests = digests;
+		int[] oldNext = next;
+		
+		digests = new byte[capacity][];
+		System.arraycopy(oldDigests, 0, digests, 0, size);
+		indexes = copy(indexes, capacity);
+		next = copy(next, capacity);
+		cursor = copy(cursor, capacity);
+		allocateSlots(capacity);
+		
+		// Reinsert first entry of each digest.  Duplicate chains are kept as is.
+		boolean[] chained = new boolean[size];
+		
+		for (int i = 0; i < size; i++) {
+			if (oldNext[i] >= 0) {
+				chained[oldNext[i]] = true;
+			}
+		}
+		
+		for (int i = 0; i < size; i++) {
+			if (! chained[i]) {
+				int slot = hash(digests[i], 0, digests[i].length) & mask;
+				
+				while (slots[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				slots[slot] = i + 1;
+			}
+		}
+	}
+	
+	private void allocateSlots(int capacity) {
+		// Keep load factor at or below one half.
+		int length = 1;
+		
+		while (length < capacity * 2) {
+			length <<= 1;
+		}
+		slots = new int[length];
+		mask = length - 1;
+	}
+	
+	private static int[] copy(int[] src, int capacity) {
+		int[] dst = new int[capacity];
+		System.arraycopy(src, 0, dst, 0, src.length);
+		return dst;
+	}
+
+	private static int hash(byte[] buf, int offset, int length) {
+		// Digests are RIPEMD-160 hashes, so their bytes are already uniformly distributed.
+		// Skip the leading bytes because they also determine the partition, which 
+		// correlates keys sent to the same node.
+		if (length >= 8) {
+			return ((buf[offset+4] & 0xFF) << 24) | ((buf[offset+5] & 0xFF) << 16) | ((buf[offset+6] & 0xFF) << 8) | (buf[offset+7] & 0xFF);
+		}
+		
+		int h = 1;
+		
+		for (int i = 0; i < length; i++) {
+			h = 31 * h + buf[offset+i];
+		}
+		return h;
+	}
+
+	private static int hash(ByteBuffer buf, int offset, int length) {
+		if (length >= 8) {
+			return buf.getInt(offset + 4);
+		}
+		
+		int h = 1;
+		
+		for (int i = 0; i < length; i++) {
+			h = 31 * h + buf.get(offset+i);
+		}
+		return h;
+	}
+
+	private static boolean equals(byte[] digest, byte[] buf, int offset, int length) {
+		if (digest.length != length) {
+			return false;
+		}
+		
+		for (int i = 0; i < length; i++) {
+			if (digest[i] != buf[offset+i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean equals(byte[] digest, ByteBuffer buf, int offset, int length) {
+		if (digest.length != length) {
+			return false;
+		}
+		
+		for (int i = 0; i < length; i++) {
+			if (digest[i] != buf.get(offset+i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
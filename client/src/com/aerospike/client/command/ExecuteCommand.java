@@ -21,16 +21,21 @@
  ******************************************************************************/
 package com.aerospike.client.command;
 
+import java.util.Map;
+
 import com.aerospike.client.AerospikeException;
 import com.aerospike.client.Key;
+import com.aerospike.client.Record;
 import com.aerospike.client.Value;
 import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.policy.Policy;
+import com.aerospike.client.util.Packer;
 
 public final class ExecuteCommand extends ReadCommand {
 	private final String packageName;
 	private final String functionName;
 	private final Value[] args;
+	private byte[] argBytes;
 
 	public ExecuteCommand(
 		Cluster cluster, 
@@ -46,8 +51,61 @@ public final class ExecuteCommand extends ReadCommand {
 		this.args = args;
 	}
 	
+	/**
+	 * Initialize command with arguments that were packed by the caller, 
+	 * so the same packed arguments can be shared by many commands.
+	 */
+	public ExecuteCommand(
+		Cluster cluster, 
+		Policy policy,
+		Key key,
+		String packageName,
+		String functionName,
+		byte[] argBytes
+	) {
+		super(cluster, policy, key, null);
+		this.packageName = packageName;
+		this.functionName = functionName;
+		this.args = null;
+		this.argBytes = argBytes;
+	}
+	
 	@Override
 	protected void writeBuffer() throws AerospikeException {
-		setUdf(key, packageName, functionName, args);
+		// Pack arguments once, even when the command is retried.
+		if (argBytes == null) {
+			argBytes = Packer.pack(args);
+		}
+		setUdf(key, packageName, functionName, argBytes);
+	}
+	
+	/**
+	 * Return user defined function result from the record returned by the server.
+	 * Throw an exception if the function failed.
+	 */
+	public static Object getResult(Record record) throws AerospikeException {
+		if (record == null || record.bins == null) {
+			return null;
+		}
+		
+		Map<String,Object> map = record.bins;
+
+		Object obj = map.get("SUCCESS");
+		
+		if (obj != null) {
+			return obj;
+		}
+		
+		// User defined functions don't have to return a value.
+		if (map.containsKey("SUCCESS")) {
+			return null;
+		}
+		
+		obj = map.get("FAILURE");
+		
+		if (obj != null) {
+			throw new AerospikeException(obj.toString());
+		}
+		throw new AerospikeException("Invalid UDF return value");
 	}
 }
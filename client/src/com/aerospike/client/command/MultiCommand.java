@@ -27,6 +27,7 @@ import java.io.IOException;
 
 import com.aerospike.client.AerospikeException;
 import com.aerospike.client.Key;
+import com.aerospike.client.Log;
 import com.aerospike.client.cluster.Connection;
 import com.aerospike.client.cluster.Node;
 
@@ -94,6 +95,30 @@ public abstract class MultiCommand extends SyncCommand {
 		return new Key(namespace, digest, setName);		
 	}
 
+	/**
+	 * Skip key fields and return key array position of the returned digest.
+	 * Return -1 if the digest was not requested.  No key is allocated.
+	 */
+	protected final int parseBatchIndex(int fieldCount, BatchNode.BatchNamespace batchNamespace) throws IOException {
+		int index = -1;
+
+		for (int i = 0; i < fieldCount; i++) {
+			readBytes(4);	
+			int fieldlen = Buffer.bytesToInt(dataBuffer, 0);
+			readBytes(fieldlen);
+			
+			if (dataBuffer[0] == FieldType.DIGEST_RIPE) {
+				int size = fieldlen - 1;
+				index = batchNamespace.digestTable.get(dataBuffer, 1, size);
+				
+				if (index < 0 && Log.debugEnabled()) {
+					Log.debug("Unexpected batch key returned: " + batchNamespace.namespace + ',' + Buffer.bytesToHexString(dataBuffer, 1, size));
+				}
+			}
+		}
+		return index;
+	}
+
 	protected final void readBytes(int length) throws IOException {
 		if (length > dataBuffer.length) {
 			// Corrupted data streams can result in a huge length.
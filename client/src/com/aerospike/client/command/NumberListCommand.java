@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.command;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.cluster.Cluster;
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.util.Unpacker;
+
+/**
+ * Read a single list bin of numbers directly into a primitive array.
+ */
+public final class NumberListCommand extends VisitCommand {
+	private final boolean toDouble;
+	private long[] longs;
+	private double[] doubles;
+
+	public NumberListCommand(Cluster cluster, Policy policy, Key key, String binName, boolean toDouble) {
+		super(cluster, policy, key, binName, null);
+		this.toDouble = toDouble;
+	}
+
+	@Override
+	protected void parseParticle(int type, int offset, int length) throws AerospikeException {
+		switch (type) {
+		case ParticleType.NULL:
+			break;
+			
+		case ParticleType.LIST:
+			if (toDouble) {
+				doubles = Unpacker.unpackDoubleList(dataBuffer, offset, length);
+			}
+			else {
+				longs = Unpacker.unpackLongList(dataBuffer, offset, length);
+			}
+			break;
+			
+		default:
+			throw new AerospikeException(ResultCode.BIN_TYPE_ERROR, "Bin is not a list: " + binName);
+		}
+	}
+	
+	/**
+	 * Return integer list, or null if the record or bin was not found.
+	 */
+	public long[] getLongs() {
+		return longs;
+	}
+	
+	/**
+	 * Return floating point list, or null if the record or bin was not found.
+	 */
+	public double[] getDoubles() {
+		return doubles;
+	}
+}
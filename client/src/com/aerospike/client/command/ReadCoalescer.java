@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.command;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.cluster.Cluster;
+import com.aerospike.client.policy.Policy;
+
+/**
+ * Combine concurrent single record reads into batch commands.  The first read of a coalescing 
+ * window becomes the group leader.  The leader waits until the window expires or the group is 
+ * full, then runs one batch for the whole group on its own thread.  The other readers wait for 
+ * the leader's batch and return their own record.  No background thread is used.
+ * <p>
+ * Only reads that pass the same policy instance are combined.  A read with a different policy 
+ * than the open group is sent directly.
+ */
+public final class ReadCoalescer {
+	private final Cluster cluster;
+	private final long windowNanos;
+	private final int maxKeys;
+	private Group current;
+	
+	public ReadCoalescer(Cluster cluster, int windowMicros, int maxKeys) {
+		this.cluster = cluster;
+		this.windowNanos = windowMicros * 1000L;
+		this.maxKeys = (maxKeys > 1)? maxKeys : 2;
+	}
+	
+	/**
+	 * Read entire record for specified key.  Return null if not found.
+	 */
+	public Record get(Policy policy, Key key) throws AerospikeException {
+		Group group;
+		int index = 0;
+		
+		synchronized (this) {
+			group = current;
+			
+			if (group == null) {
+				group = new Group(policy, maxKeys);
+				current = group;
+			}
+			else if (group.policy != policy) {
+				group = null;
+			}
+			
+			if (group != null) {
+				index = group.count++;
+				group.keys[index] = key;
+				
+				if (group.count == maxKeys) {
+					current = null;
+					group.full = true;
+					LockSupport.unpark(group.leader);
+				}
+			}
+		}
+		
+		if (group == null) {
+			ReadCommand command = new ReadCommand(cluster, policy, key, null);
+			command.execute();
+			return command.getRecord();
+		}
+		
+		if (index == 0) {
+			lead(group);
+		}
+		else {
+			group.await();
+		}
+		return group.getRecord(index);
+	}
+	
+	private void lead(Group group) {
+		// The command belongs to every reader in the group, so an interrupt of the 
+		// leader thread must not cancel it.  An interrupt would also make parkNanos 
+		// return immediately.  Clear the interrupt now and restore it afterwards.
+		boolean interrupted = Thread.interrupted();
+		long deadline = System.nanoTime() + windowNanos;
+		long remaining = windowNanos;
+		
+		while (! group.full && remaining > 0) {
+			LockSupport.parkNanos(this, remaining);
+			
+			if (Thread.interrupted()) {
+				interrupted = true;
+			}
+			remaining = deadline - System.nanoTime();
+		}
+
+		synchronized (this) {
+			if (current == group) {
+				current = null;
+			}
+		}
+		
+		try {
+			group.execute(cluster);
+		}
+		finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+	private static final class Group {
+		private final Policy policy;
+		private final Key[] keys;
+		private final Thread leader;
+		private final CountDownLatch completed = new CountDownLatch(1);
+		private volatile boolean full;
+		private int count;
+		private Record[] records;
+		private AerospikeException exception;
+		
+		public Group(Policy policy, int maxKeys) {
+			this.policy = policy;
+			this.keys = new Key[maxKeys];
+			this.leader = Thread.currentThread();
+		}
+		
+		public void execute(Cluster cluster) {
+			try {
+				if (count == 1) {
+					// No other reader joined.  A batch of one key is more expensive than a read.
+					ReadCommand command = new ReadCommand(cluster, policy, keys[0], null);
+					command.execute();
+					records = new Record[] {command.getRecord()};
+					return;
+				}
+				Key[] batchKeys = (count == keys.length)? keys : Arrays.copyOf(keys, count);
+				records = new Record[count];
+				new BatchExecutor(cluster, policy, batchKeys, null, records, null, Command.INFO1_READ | Command.INFO1_GET_ALL);
+			}
+			catch (AerospikeException ae) {
+				exception = ae;
+			}
+			catch (RuntimeException re) {
+				exception = new AerospikeException(re);
+			}
+			finally {
+				completed.countDown();
+			}
+		}
+		
+		public void await() throws AerospikeException {
+			try {
+				completed.await();
+			}
+			catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				throw new AerospikeException.Cancelled(ie);
+			}
+		}
+		
+		public Record getRecord(int index) throws AerospikeException {
+			if (exception != null) {
+				throw exception;
+			}
+			return records[index];
+		}
+	}
+}
@@ -103,6 +103,7 @@ public class ReadCommand extends SingleCommand {
         
         if (resultCode != 0) {
         	if (resultCode == ResultCode.KEY_NOT_FOUND_ERROR) {
+        		this.resultCode = resultCode;
         		return;
         	}
         	
@@ -110,7 +111,8 @@ public class ReadCommand extends SingleCommand {
                 record = parseRecord(opCount, fieldCount, generation, expiration);
                 handleUdfError(resultCode);
         	}
-        	throw new AerospikeException(resultCode);
+        	setResultCode(resultCode);
+        	return;
         }
                   
         if (opCount == 0) {
@@ -135,11 +137,11 @@ public class ReadCommand extends SingleCommand {
     			message = list[0] + ':' + list[1] + ' ' + list[3];
 			}
 			catch (Exception e) {
-				// Use generic exception if parse error occurs.
-	        	throw new AerospikeException(resultCode, ret);
+				// Use server result code if parse error occurs.
+	        	throw new AerospikeException.UdfError(resultCode, ret);
 			}
 			
-			throw new AerospikeException(code, message);
+			throw new AerospikeException.UdfError(code, message);
 		}
 	}
 	
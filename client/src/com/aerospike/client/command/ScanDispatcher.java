@@ -0,0 +1,268 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.command;
+
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.ScanCallback;
+import com.aerospike.client.policy.ScanPolicy;
+
+/**
+ * Run scan callbacks on worker threads.  Node commands still parse records on their socket 
+ * threads, then hand them to workers through bounded queues, so a slow callback does not 
+ * stall socket reads until the queues fill up.
+ * <p>
+ * In ordered mode, each node is assigned one queue and one worker, so a node's records are
+ * delivered in the order they were received.  Otherwise, all workers share one queue.
+ * <p>
+ * Workers run on their own daemon threads instead of the client thread pool.  Workers wait 
+ * for records, so taking them from a bounded pool could leave no threads for the node 
+ * commands that produce the records.
+ */
+public final class ScanDispatcher {
+	private static final long POLL_MILLIS = 100;
+	private static final Item END = new Item(null, null);
+	
+	private final ScanCallback callback;
+	private final ArrayList<ArrayBlockingQueue<Item>> queues;
+	private final int workersPerQueue;
+	private final CountDownLatch completed;
+	private volatile Exception exception;
+	
+	public ScanDispatcher(ScanPolicy policy, ScanCallback callback, int nodeCount) {
+		this.callback = callback;
+		
+		int workers = policy.callbackThreads;
+		int queueCount;
+		
+		if (policy.callbackOrdered) {
+			// Extra workers would never receive records.
+			if (workers > nodeCount) {
+				workers = nodeCount;
+			}
+			queueCount = workers;
+			workersPerQueue = 1;
+		}
+		else {
+			queueCount = 1;
+			workersPerQueue = workers;
+		}
+		
+		int capacity = Math.max(policy.recordQueueSize / queueCount, 1);
+		queues = new ArrayList<ArrayBlockingQueue<Item>>(queueCount);
+		completed = new CountDownLatch(workers);
+		
+		for (int i = 0; i < queueCount; i++) {
+			ArrayBlockingQueue<Item> queue = new ArrayBlockingQueue<Item>(capacity);
+			queues.add(queue);
+			
+			for (int j = 0; j < workersPerQueue; j++) {
+				Thread thread = new Thread(new Worker(queue), "scancallback");
+				thread.setDaemon(true);
+				thread.start();
+			}
+		}
+	}
+	
+	/**
+	 * Return callback that node commands call on their socket threads.
+	 */
+	public ScanCallback getCallback(int nodeIndex) {
+		return new NodeCallback(queues.get(nodeIndex % queues.size()));
+	}
+	
+	/**
+	 * Wait for workers to process all queued records.  Must be called after all node 
+	 * commands have completed.  Throw the first callback exception, if any.
+	 */
+	public void close() throws AerospikeException {
+		awaitWorkers();
+		
+		if (exception != null) {
+			throw toAerospikeException(exception);
+		}
+	}
+	
+	/**
+	 * Wait for workers after a node command failed with the given exception.  Return 
+	 * the exception that should be thrown instead of throwing it, so the node failure 
+	 * is not masked.  A callback exception is returned only when it caused the node 
+	 * command to be terminated.
+	 */
+	public AerospikeException close(AerospikeException ae) {
+		awaitWorkers();
+		
+		Exception e = exception;
+		
+		if (e != null && ae instanceof AerospikeException.ScanTerminated) {
+			return toAerospikeException(e);
+		}
+		return ae;
+	}
+	
+	private void awaitWorkers() {
+		boolean interrupted = false;
+		
+		for (ArrayBlockingQueue<Item> queue : queues) {
+			for (int i = 0; i < workersPerQueue; i++) {
+				// Poll for failures, because workers stop taking records after a failure.
+				while (exception == null) {
+					try {
+						if (queue.offer(END, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+							break;
+						}
+					}
+					catch (InterruptedException ie) {
+						// Caller was interrupted.  Workers stop at their next poll.
+						interrupted = true;
+						fail(new AerospikeException.Cancelled(ie));
+					}
+				}
+			}
+		}
+		
+		while (true) {
+			try {
+				completed.await();
+				break;
+			}
+			catch (InterruptedException ie) {
+				interrupted = true;
+				fail(new AerospikeException.Cancelled(ie));
+			}
+		}
+		
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	private static AerospikeException toAerospikeException(Exception e) {
+		if (e instanceof AerospikeException) {
+			return (AerospikeException)e;
+		}
+		return new AerospikeException(e);
+	}
+	
+	/**
+	 * Queue record for workers.  Return false if a callback failed or the calling 
+	 * node thread was interrupted, which happens when the scan is being stopped.
+	 * The interrupt does not set the scan exception, so the real cause is kept.
+	 */
+	private boolean put(ArrayBlockingQueue<Item> queue, Item item) {
+		// Poll for failures, because workers stop taking records after a failure.
+		try {
+			while (exception == null) {
+				if (queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+					return true;
+				}
+			}
+		}
+		catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		}
+		return false;
+	}
+	
+	private void fail(Exception e) {
+		synchronized (this) {
+			if (exception == null) {
+				exception = e;
+			}
+		}
+	}
+	
+	private final class NodeCallback implements ScanCallback {
+		private final ArrayBlockingQueue<Item> queue;
+		
+		public NodeCallback(ArrayBlockingQueue<Item> queue) {
+			this.queue = queue;
+		}
+
+		public void scanCallback(Key key, Record record) throws AerospikeException {
+			if (! put(queue, new Item(key, record))) {
+				// Callback failed on a worker thread or scan is being stopped.  
+				// Terminate node command.
+				Exception e = exception;
+				
+				if (e != null) {
+					throw new AerospikeException.ScanTerminated(e);
+				}
+				throw new AerospikeException.ScanTerminated();
+			}
+		}
+	}
+	
+	private final class Worker implements Runnable {
+		private final ArrayBlockingQueue<Item> queue;
+		
+		public Worker(ArrayBlockingQueue<Item> queue) {
+			this.queue = queue;
+		}
+		
+		public void run() {
+			try {
+				while (exception == null) {
+					Item item;
+					
+					try {
+						item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+					}
+					catch (InterruptedException ie) {
+						fail(new AerospikeException.Cancelled(ie));
+						break;
+					}
+					
+					if (item == END) {
+						break;
+					}
+					
+					if (item != null) {
+						callback.scanCallback(item.key, item.record);
+					}
+				}
+			}
+			catch (Exception e) {
+				fail(e);
+			}
+			finally {
+				completed.countDown();
+			}
+		}
+	}
+	
+	private static final class Item {
+		private final Key key;
+		private final Record record;
+		
+		public Item(Key key, Record record) {
+			this.key = key;
+			this.record = record;
+		}
+	}
+}
@@ -21,6 +21,7 @@
  ******************************************************************************/
 package com.aerospike.client.command;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 
 import com.aerospike.client.AerospikeException;
@@ -35,16 +36,25 @@ public final class ScanExecutor {
 	private final ScanThread[] threads;
 	private volatile Exception exception;
 	private int nextThread;
-	private boolean completed;
+	private final CountDownLatch completed = new CountDownLatch(1);
 	
 	public ScanExecutor(Cluster cluster, Node[] nodes, ScanPolicy policy, String namespace, String setName, ScanCallback callback, String[] binNames) {
+		this(cluster, nodes, policy, namespace, setName, callback, null, binNames);
+	}
+	
+	/**
+	 * Initialize scan.  If dispatcher is not null, records are passed to the dispatcher's
+	 * callback threads instead of calling the callback on the node threads.
+	 */
+	public ScanExecutor(Cluster cluster, Node[] nodes, ScanPolicy policy, String namespace, String setName, ScanCallback callback, ScanDispatcher dispatcher, String[] binNames) {
 		this.threadPool = cluster.getThreadPool();
 		
 		// Initialize threads.		
 		threads = new ScanThread[nodes.length];
 		
 		for (int i = 0; i < nodes.length; i++) {
-			ScanCommand command = new ScanCommand(nodes[i], policy, namespace, setName, callback, binNames);
+			ScanCallback nodeCallback = (dispatcher != null)? dispatcher.getCallback(i) : callback;
+			ScanCommand command = new ScanCommand(nodes[i], policy, namespace, setName, nodeCallback, binNames);
 			threads[i] = new ScanThread(command);
 		}
 		
@@ -117,19 +127,28 @@ public final class ScanExecutor {
 		notifyCompleted();
     }
 
-	private synchronized void waitTillComplete() {
-		while (! completed) {
+	private void waitTillComplete() {
+		boolean interrupted = false;
+		
+		while (true) {
 			try {
-				super.wait();
+				completed.await();
+				break;
 			}
 			catch (InterruptedException ie) {
+				// Caller was interrupted.  Stop node commands, which releases the latch.
+				interrupted = true;
+				stopThreads(new AerospikeException.Cancelled(ie));
 			}
 		}
+		
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
 	}
 	
-	private synchronized void notifyCompleted() {
-		completed = true;
-		super.notify();
+	private void notifyCompleted() {
+		completed.countDown();
 	}
 
     private final class ScanThread implements Runnable {
@@ -142,7 +161,9 @@ public final class ScanExecutor {
 		}
 		
 		public void run() {
-			thread = Thread.currentThread();
+			synchronized (this) {
+				thread = Thread.currentThread();
+			}
 			
 			try {
 				if (command.isValid()) {
@@ -153,6 +174,7 @@ public final class ScanExecutor {
 				// Terminate other scan threads.
 				stopThreads(e);
 			}
+			detach();
 			complete = true;
 			
 		   	if (exception == null) {
@@ -163,9 +185,18 @@ public final class ScanExecutor {
 		public void stop() {
 			command.stop();
 			
-			if (thread != null) {
-				thread.interrupt();
+			synchronized (this) {
+				if (thread != null) {
+					thread.interrupt();
+				}
 			}
 		}
+		
+		private synchronized void detach() {
+			// Release pooled thread so a late stop() can not interrupt its next task.
+			// Clear any interrupt that was meant for this command.
+			thread = null;
+			Thread.interrupted();
+		}
 	}
 }
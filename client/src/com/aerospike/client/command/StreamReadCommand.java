@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.command;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.cluster.Cluster;
+import com.aerospike.client.cluster.Connection;
+import com.aerospike.client.policy.Policy;
+
+/**
+ * Read a single bin and copy its particle bytes directly from the socket to an
+ * output stream in chunks the size of the command buffer.  The bin value is never
+ * fully materialized on the heap.
+ */
+public final class StreamReadCommand extends SingleCommand {
+	private final Policy policy;
+	private final String binName;
+	private final OutputStream out;
+	private Record record;
+	private long bytesWritten;
+	private boolean streaming;
+
+	public StreamReadCommand(Cluster cluster, Policy policy, Key key, String binName, OutputStream out) {
+		super(cluster, key);
+		this.policy = (policy == null) ? new Policy() : policy;
+		this.binName = binName;
+		this.out = out;
+	}
+	
+	@Override
+	protected Policy getPolicy() {
+		return policy;
+	}
+
+	@Override
+	protected void writeBuffer() throws AerospikeException {
+		setRead(key, new String[] {binName});
+	}
+
+	protected void parseResult(Connection conn) throws AerospikeException, IOException {
+		// Read header.		
+		conn.readFully(dataBuffer, MSG_TOTAL_HEADER_SIZE);
+
+		long sz = Buffer.bytesToLong(dataBuffer, 0);
+		byte headerLength = dataBuffer[8];
+		int resultCode = dataBuffer[13] & 0xFF;
+		int generation = Buffer.bytesToInt(dataBuffer, 14);
+		int expiration = Buffer.bytesToInt(dataBuffer, 18);
+		int fieldCount = Buffer.bytesToShort(dataBuffer, 26);
+		int opCount = Buffer.bytesToShort(dataBuffer, 28);
+		long receiveSize = (sz & 0xFFFFFFFFFFFFL) - headerLength;
+
+		if (resultCode != 0) {
+			skip(conn, receiveSize);
+			
+			if (resultCode == ResultCode.KEY_NOT_FOUND_ERROR) {
+				return;
+			}
+			throw new AerospikeException(resultCode);
+		}
+		
+		// Skip over any fields returned by the server.
+		for (int i = 0; i < fieldCount; i++) {
+			read(conn, 4);
+			int fieldSize = Buffer.bytesToInt(dataBuffer, 0);
+			skip(conn, fieldSize);
+			receiveSize -= 4 + fieldSize;
+		}
+		
+		for (int i = 0; i < opCount; i++) {
+			read(conn, OPERATION_HEADER_SIZE);
+			int opSize = Buffer.bytesToInt(dataBuffer, 0);
+			int nameSize = dataBuffer[7];
+			read(conn, nameSize);
+			String name = Buffer.utf8ToString(dataBuffer, 0, nameSize);
+			long particleSize = opSize - (4 + nameSize);
+			receiveSize -= OPERATION_HEADER_SIZE + nameSize;
+			
+			if (name.equals(binName)) {
+				stream(conn, particleSize);
+			}
+			else {
+				skip(conn, particleSize);
+			}
+			receiveSize -= particleSize;
+		}
+		
+		// There should not be any more bytes.  Empty the socket to be safe.
+		if (receiveSize > 0) {
+			skip(conn, receiveSize);
+		}
+		record = new Record(null, null, generation, expiration);
+	}
+	
+	private void stream(Connection conn, long length) throws AerospikeException, IOException {
+		// Once bytes have been handed to the caller, the command can no longer be retried.
+		streaming = true;
+
+		while (length > 0) {
+			int len = (int)Math.min(length, dataBuffer.length);
+			read(conn, len);
+			
+			try {
+				out.write(dataBuffer, 0, len);
+			}
+			catch (IOException ioe) {
+				throw new AerospikeException("Bin stream write failed after " + bytesWritten + " bytes", ioe);
+			}
+			bytesWritten += len;
+			length -= len;
+		}
+	}
+	
+	private void skip(Connection conn, long length) throws AerospikeException, IOException {
+		while (length > 0) {
+			int len = (int)Math.min(length, dataBuffer.length);
+			read(conn, len);
+			length -= len;
+		}
+	}
+	
+	private void read(Connection conn, int length) throws AerospikeException, IOException {
+		if (! streaming) {
+			conn.readFully(dataBuffer, length);
+			return;
+		}
+		
+		// Socket errors can not be retried after the caller has received partial data.
+		try {
+			conn.readFully(dataBuffer, length);
+		}
+		catch (IOException ioe) {
+			throw new AerospikeException("Bin stream read failed after " + bytesWritten + " bytes", ioe);
+		}
+	}
+
+	/**
+	 * Return record header, or null if the record was not found.
+	 */
+	public Record getRecord() {
+		return record;
+	}
+	
+	/**
+	 * Return number of particle bytes written to the output stream.
+	 */
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+}
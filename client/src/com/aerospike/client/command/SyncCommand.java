@@ -25,12 +25,26 @@ import java.io.IOException;
 
 import com.aerospike.client.AerospikeException;
 import com.aerospike.client.Log;
+import com.aerospike.client.ResultCode;
 import com.aerospike.client.cluster.Connection;
 import com.aerospike.client.cluster.Node;
 import com.aerospike.client.policy.Policy;
 import com.aerospike.client.util.Util;
 
 public abstract class SyncCommand extends Command {
+	protected int resultCode;
+	private boolean returnResultCode;
+
+	/**
+	 * Execute command and return the server result code instead of throwing an exception
+	 * for server errors.  A client timeout returns {@link ResultCode#TIMEOUT}.  
+	 * Other client errors are still thrown.
+	 */
+	public final int executeResultCode() throws AerospikeException {
+		returnResultCode = true;
+		execute();
+		return resultCode;
+	}
 
 	public final void execute() throws AerospikeException {
 		Policy policy = getPolicy();        
@@ -39,9 +53,15 @@ public abstract class SyncCommand extends Command {
         int failedNodes = 0;
         int failedConns = 0;
         int iterations = 0;
+        AerospikeException.Cancelled cancelled = null;
 
         // Execute command until successful, timed out or maximum iterations have been reached.
 		while (true) {
+			if (Thread.currentThread().isInterrupted()) {
+				cancelled = new AerospikeException.Cancelled();
+				break;
+			}
+			
 			Node node = null;
 			try {		
 				node = getNode();
@@ -55,7 +75,7 @@ public abstract class SyncCommand extends Command {
 					Buffer.intToBytes(remainingMillis, dataBuffer, 22);
 					
 					// Send command.
-					conn.write(dataBuffer, dataOffset);
+					writeCommand(conn);
 					
 					// Parse results.
 					parseResult(conn);
@@ -64,8 +84,14 @@ public abstract class SyncCommand extends Command {
 					conn.updateLastUsed();
 					node.restoreHealth();
 					
-					// Put connection back in pool.
-					node.putConnection(conn);
+					if (resultCode == 0 || ResultCode.keepConnection(resultCode)) {
+						// Put connection back in pool.
+						node.putConnection(conn);
+					}
+					else {
+						// Close socket to flush out possible garbage.  Do not put back in pool.
+						conn.close();
+					}
 					
 					// Command has completed successfully.  Exit method.
 					return;
@@ -94,6 +120,12 @@ public abstract class SyncCommand extends Command {
 					// Close socket to flush out possible garbage.  Do not put back in pool.
 					conn.close();
 					
+					if (Thread.currentThread().isInterrupted()) {
+						// Socket wait was aborted by thread interrupt.  Node is not unhealthy.
+						cancelled = new AerospikeException.Cancelled(ioe);
+						break;
+					}
+					
 					if (Log.debugEnabled()) {
 						Log.debug("Node " + node + ": " + Util.getErrorMessage(ioe));
 					}
@@ -107,6 +139,12 @@ public abstract class SyncCommand extends Command {
 				failedNodes++;
 			}
 			catch (AerospikeException.Connection ce) {
+				if (Thread.currentThread().isInterrupted()) {
+					// Connect was aborted by thread interrupt.
+					cancelled = new AerospikeException.Cancelled(ce);
+					break;
+				}
+				
 				// Socket connection error has occurred. Decrease health and retry.
 				node.decreaseHealth();
 				
@@ -129,19 +167,59 @@ public abstract class SyncCommand extends Command {
 				}
 			}
 			
+			// Fail fast when the node's retry budget has been exhausted.
+			if (node != null && ! node.acquireRetry()) {
+				if (returnResultCode) {
+					resultCode = ResultCode.RETRY_BUDGET_EXCEEDED;
+					return;
+				}
+				throw new AerospikeException(ResultCode.RETRY_BUDGET_EXCEEDED);
+			}
+			
 			if (policy.sleepBetweenRetries > 0) {
-				// Sleep before trying again.
-				Util.sleep(policy.sleepBetweenRetries);
+				// Sleep before trying again.  Interrupts cancel the command.
+				try {
+					Thread.sleep(policy.sleepBetweenRetries);
+				}
+				catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					cancelled = new AerospikeException.Cancelled(ie);
+					break;
+				}
 			}
 		}
 		
+		if (cancelled != null) {
+			if (returnResultCode) {
+				resultCode = ResultCode.COMMAND_CANCELLED;
+				return;
+			}
+			throw cancelled;
+		}
+		
 		/*
 		if (Log.debugEnabled()) {
 			Log.debug("Client timeout: timeout=" + policy.timeout + " iterations=" + iterations + 
 				" failedNodes=" + failedNodes + " failedConns=" + failedConns);
 		}*/
+		if (returnResultCode) {
+			resultCode = ResultCode.TIMEOUT;
+			return;
+		}
 		throw new AerospikeException.Timeout(policy.timeout, iterations, failedNodes, failedConns);
 	}
+	
+	/**
+	 * Record server error result code.  Throw exception unless the caller requested 
+	 * result codes.  The response must already be fully read when exception is not thrown.
+	 */
+	protected final void setResultCode(int resultCode) throws AerospikeException {
+		this.resultCode = resultCode;
+		
+		if (! returnResultCode) {
+			throw new AerospikeException(resultCode);
+		}
+	}
 		
 	protected abstract Node getNode() throws AerospikeException.InvalidNode;
 	protected abstract void parseResult(Connection conn) throws AerospikeException, IOException;
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.command;
+
+import java.io.IOException;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.cluster.Cluster;
+import com.aerospike.client.cluster.Connection;
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.util.UnpackVisitor;
+import com.aerospike.client.util.Unpacker;
+
+/**
+ * Read a single bin and decode its value directly from the receive buffer
+ * through a visitor.  No bin objects are created.
+ */
+public class VisitCommand extends SingleCommand {
+	private final Policy policy;
+	protected final String binName;
+	private final UnpackVisitor visitor;
+	private Record record;
+
+	public VisitCommand(Cluster cluster, Policy policy, Key key, String binName, UnpackVisitor visitor) {
+		super(cluster, key);
+		this.policy = (policy == null) ? new Policy() : policy;
+		this.binName = binName;
+		this.visitor = visitor;
+	}
+	
+	@Override
+	protected Policy getPolicy() {
+		return policy;
+	}
+
+	@Override
+	protected void writeBuffer() throws AerospikeException {
+		setRead(key, new String[] {binName});
+	}
+
+	protected final void parseResult(Connection conn) throws AerospikeException, IOException {
+		// Read header.		
+		conn.readFully(dataBuffer, MSG_TOTAL_HEADER_SIZE);
+
+		long sz = Buffer.bytesToLong(dataBuffer, 0);
+		byte headerLength = dataBuffer[8];
+		int resultCode = dataBuffer[13] & 0xFF;
+		int generation = Buffer.bytesToInt(dataBuffer, 14);
+		int expiration = Buffer.bytesToInt(dataBuffer, 18);
+		int fieldCount = Buffer.bytesToShort(dataBuffer, 26);
+		int opCount = Buffer.bytesToShort(dataBuffer, 28);
+		int receiveSize = ((int) (sz & 0xFFFFFFFFFFFFL)) - headerLength;
+		
+		// Read remaining message bytes.
+		if (receiveSize > 0) {
+			sizeBuffer(receiveSize);
+			conn.readFully(dataBuffer, receiveSize);
+		}
+		
+		if (resultCode != 0) {
+			if (resultCode == ResultCode.KEY_NOT_FOUND_ERROR) {
+				return;
+			}
+			throw new AerospikeException(resultCode);
+		}
+		
+		int receiveOffset = 0;
+		
+		for (int i = 0; i < fieldCount; i++) {
+			int fieldSize = Buffer.bytesToInt(dataBuffer, receiveOffset);
+			receiveOffset += 4 + fieldSize;
+		}
+		
+		for (int i = 0 ; i < opCount; i++) {
+			int opSize = Buffer.bytesToInt(dataBuffer, receiveOffset);
+			byte particleType = dataBuffer[receiveOffset+5];
+			byte nameSize = dataBuffer[receiveOffset+7];
+			String name = Buffer.utf8ToString(dataBuffer, receiveOffset+8, nameSize);
+			receiveOffset += 4 + 4 + nameSize;
+	
+			int particleBytesSize = (int) (opSize - (4 + nameSize));
+			
+			if (name.equals(binName)) {
+				parseParticle(particleType, receiveOffset, particleBytesSize);
+			}
+			receiveOffset += particleBytesSize;
+		}
+		record = new Record(null, null, generation, expiration);
+	}
+	
+	/**
+	 * Decode particle of the requested bin, located in dataBuffer.  Default reports the 
+	 * value to the visitor.
+	 */
+	protected void parseParticle(int type, int offset, int length) throws AerospikeException {
+		switch (type) {
+		case ParticleType.NULL:
+			visitor.visitNull();
+			break;
+			
+		case ParticleType.INTEGER:
+			long val = 0;
+			
+			for (int i = 0; i < length; i++) {
+				val <<= 8;
+				val |= dataBuffer[offset+i] & 0xFF;
+			}
+			visitor.visitLong(val);
+			break;
+			
+		case ParticleType.STRING:
+			visitor.visitString(dataBuffer, offset, length);
+			break;
+			
+		case ParticleType.LIST:
+		case ParticleType.MAP:
+			Unpacker.visit(dataBuffer, offset, length, visitor);
+			break;
+			
+		default:
+			visitor.visitBlob(type, dataBuffer, offset, length);
+			break;
+		}
+	}
+	
+	/**
+	 * Return record header, or null if the record was not found.
+	 */
+	public final Record getRecord() {
+		return record;
+	}
+}
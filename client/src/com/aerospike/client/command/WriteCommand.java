@@ -59,10 +59,10 @@ public final class WriteCommand extends SingleCommand {
 		conn.readFully(dataBuffer, MSG_TOTAL_HEADER_SIZE);
 	
 		int resultCode = dataBuffer[13] & 0xFF;
+	    emptySocket(conn);
 		
 	    if (resultCode != 0) {
-	    	throw new AerospikeException(resultCode);        	
-	    }        	
-	    emptySocket(conn);
+	    	setResultCode(resultCode);        	
+	    }
 	}
 }
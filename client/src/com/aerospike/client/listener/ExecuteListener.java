@@ -19,51 +19,28 @@
  * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
  * IN THE SOFTWARE.
  ******************************************************************************/
-package com.aerospike.client.command;
-
-import java.util.ArrayList;
-import java.util.HashMap;
+package com.aerospike.client.listener;
 
+import com.aerospike.client.AerospikeException;
 import com.aerospike.client.Key;
 
-public final class BatchItem {
-	
-	public static HashMap<Key,BatchItem> generateMap(Key[] keys) {
-		
-		HashMap<Key,BatchItem> keyMap = new HashMap<Key,BatchItem>(keys.length);
-		
-		for (int i = 0; i < keys.length; i++) {
-			Key key = keys[i];
-			BatchItem item = keyMap.get(key);
-			
-			if (item == null) {
-				item = new BatchItem(i);
-				keyMap.put(key, item);
-			}
-			else {
-				item.addDuplicate(i);
-			}
-		}
-		return keyMap;
-	}
-	
-	private int index;
-	private ArrayList<Integer> duplicates;
-	
-	public BatchItem(int idx) {
-		this.index = idx;
-	}
-	
-	public void addDuplicate(int idx) {
-		if (duplicates == null) {
-			duplicates = new ArrayList<Integer>();
-			duplicates.add(index);
-			index = 0;
-		}
-		duplicates.add(idx);
-	}
-	
-	public int getIndex() {
-		return (duplicates == null)? index : duplicates.get(index++);
-	}
+/**
+ * Asynchronous result notifications for user defined function execute commands.
+ */
+public interface ExecuteListener {
+	/**
+	 * This method is called when an asynchronous execute command completes successfully.
+	 * 
+	 * @param key			unique record identifier
+	 * @param obj			object returned by the user defined function, may be null
+	 */
+	public void onSuccess(Key key, Object obj);
+
+	/**
+	 * This method is called when an asynchronous execute command fails, 
+	 * including when the user defined function returns a failure.
+	 * 
+	 * @param exception		error that occurred
+	 */
+	public void onFailure(AerospikeException exception);
 }
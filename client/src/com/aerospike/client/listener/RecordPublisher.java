@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.listener;
+
+/**
+ * Source of records that are sent to a subscriber only as fast as the subscriber requests them.
+ * Method signatures and signalling rules follow the Reactive Streams <code>Publisher</code>
+ * contract, so an adapter to a Reactive Streams library only needs to forward calls.
+ */
+public interface RecordPublisher {
+	/**
+	 * Start the command and stream records to the subscriber.  The subscriber's onSubscribe()
+	 * is always called first.  A publisher instance supports only one subscriber.  Later
+	 * subscribers receive onError().
+	 * 
+	 * @param subscriber			where to send records
+	 */
+	public void subscribe(RecordSubscriber subscriber);
+}
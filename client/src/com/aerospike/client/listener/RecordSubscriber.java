@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.listener;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.query.KeyRecord;
+
+/**
+ * Receiver of records from a {@link RecordPublisher}.  Signals are never sent concurrently,
+ * but may arrive on different threads, including selector threads.  Implementations
+ * must not block.
+ */
+public interface RecordSubscriber {
+	/**
+	 * This method is called once before any other signal.  No records are sent until 
+	 * {@link RecordSubscription#request(long)} is called.
+	 * 
+	 * @param subscription			handle used to request records or cancel
+	 */
+	public void onSubscribe(RecordSubscription subscription);
+	
+	/**
+	 * This method is called for each record.  The number of calls never exceeds
+	 * the number of records requested.
+	 * 
+	 * @param record				key and record data
+	 */
+	public void onNext(KeyRecord record);
+	
+	/**
+	 * This method is called when the command fails.  No further signals are sent.
+	 * 
+	 * @param exception				error that occurred
+	 */
+	public void onError(AerospikeException exception);
+	
+	/**
+	 * This method is called after the last record has been sent.  No further signals are sent.
+	 */
+	public void onComplete();
+}
@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.listener;
+
+import com.aerospike.client.AerospikeException;
+
+/**
+ * Asynchronous result notifications for query aggregation commands.
+ * The results are sent one at a time.
+ */
+public interface ResultSequenceListener {
+	/**
+	 * This method is called for each value produced by the client side aggregation function.
+	 * Calls are made from a single thread.
+	 * <p>
+	 * The user may throw a 
+	 * {@link com.aerospike.client.AerospikeException.QueryTerminated AerospikeException.QueryTerminated} 
+	 * exception if the command should be aborted.
+	 * 
+	 * @param result				aggregation result
+	 * @throws AerospikeException	if error occurs or query should be terminated.
+	 */
+	public void onResult(Object result) throws AerospikeException;
+	
+	/**
+	 * This method is called when the asynchronous query aggregation completes.
+	 */
+	public void onSuccess();
+	
+	/**
+	 * This method is called when an asynchronous query aggregation fails.
+	 * 
+	 * @param exception				error that occurred
+	 */
+	public void onFailure(AerospikeException exception);
+}
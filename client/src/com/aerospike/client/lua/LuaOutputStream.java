@@ -21,19 +21,30 @@
  ******************************************************************************/
 package com.aerospike.client.lua;
 
+import org.luaj.vm2.LuaError;
 import org.luaj.vm2.LuaString;
 import org.luaj.vm2.LuaUserdata;
 import org.luaj.vm2.LuaValue;
 
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.listener.ResultSequenceListener;
 import com.aerospike.client.query.ResultSet;
 
 public final class LuaOutputStream extends LuaUserdata implements LuaStream {
 	
 	private final ResultSet resultSet;
+	private final ResultSequenceListener listener;
 	
 	public LuaOutputStream(ResultSet resultSet) {
 		super(resultSet);
 		this.resultSet = resultSet;
+		this.listener = null;
+	}
+	
+	public LuaOutputStream(ResultSequenceListener listener) {
+		super(listener);
+		this.resultSet = null;
+		this.listener = listener;
 	}
 	
 	@Override
@@ -44,7 +55,19 @@ public final class LuaOutputStream extends LuaUserdata implements LuaStream {
 	@Override
 	public void write(LuaValue source) {
 		Object target = LuaUtil.luaToObject(source);
-		resultSet.put(target);
+		
+		if (listener != null) {
+			try {
+				listener.onResult(target);
+			}
+			catch (AerospikeException ae) {
+				// Abort aggregation.  Caller unwraps the cause.
+				throw new LuaError(ae);
+			}
+		}
+		else {
+			resultSet.put(target);
+		}
 	}
 
 	@Override
@@ -78,4 +78,72 @@ public class ClientPolicy {
 	 * constructed to use daemon threads.
 	 */
 	public boolean sharedThreadPool;
+	
+	/**
+	 * Run batch, scan and query node commands on virtual threads when {@link #threadPool} is null.
+	 * Applications that also issue sync commands from virtual threads can then run tens of 
+	 * thousands of concurrent requests without a matching number of OS threads.
+	 * <p>
+	 * A virtual thread that waits inside a synchronized block or on a monitor is pinned to 
+	 * its carrier thread.  The client therefore waits only on java.util.concurrent latches, 
+	 * locks and queues, and on sockets.  Its synchronized blocks guard short updates of 
+	 * shared state and never wait.
+	 * <p>
+	 * Requires a JVM that supports virtual threads.  Otherwise, a warning is logged and the 
+	 * default daemon thread pool is used.  Default is false.
+	 */
+	public boolean useVirtualThreads;
+	
+	/**
+	 * Track prole (replica) partition ownership in addition to master ownership.
+	 * This costs an extra info request per node when partitions change, and is required
+	 * by policies that send reads to replica nodes, such as {@link Policy#hedgeDelay}.
+	 * Servers that do not support "replicas-prole" requests are only used as masters.
+	 */
+	public boolean requestProleReplicas;
+	
+	/**
+	 * Maximum number of retry tokens held for each server node.  Every retry to a node
+	 * spends one token and every successful command to the node earns back 
+	 * {@link #retryBudgetRatio} of a token.  When a node degrades, its tokens run out and
+	 * commands fail immediately with {@link com.aerospike.client.ResultCode#RETRY_BUDGET_EXCEEDED}
+	 * instead of sleeping and retrying.  The budget recovers as successful commands flow again.
+	 * <p>
+	 * The default, zero, disables the retry budget and only {@link Policy#maxRetries} applies.
+	 */
+	public int retryBudget;
+	
+	/**
+	 * Fraction of a retry token earned by each successful command when {@link #retryBudget} 
+	 * is enabled.  The default of 0.1 allows sustained retries of about 10% of traffic.
+	 */
+	public double retryBudgetRatio = 0.1;
+	
+	/**
+	 * Open sync command sockets through socket channels, so interrupting a thread that is 
+	 * blocked on a database response aborts the socket wait immediately.  The interrupted
+	 * command throws {@link com.aerospike.client.AerospikeException.Cancelled} and its 
+	 * connection is closed.
+	 * <p>
+	 * Sync commands always check for interrupts between retries.  When this flag is false 
+	 * (default), a blocked socket read only returns when data arrives or the socket times out.
+	 */
+	public boolean interruptibleSockets;
+	
+	/**
+	 * Window in microseconds during which concurrent {@code AerospikeClient.get(Policy, Key)} 
+	 * calls are combined into batch commands.  The first read of a window waits up to this long 
+	 * for other reads, then one batch is sent for all of them.  This trades a little latency 
+	 * for far fewer round trips when many threads read different keys at the same time.
+	 * Only reads that use the same policy instance are combined.
+	 * <p>
+	 * The default, zero, disables read coalescing.
+	 */
+	public int readCoalesceWindow;
+	
+	/**
+	 * Maximum number of reads combined into one batch when {@link #readCoalesceWindow} is 
+	 * enabled.  A full batch is sent without waiting for the window to expire.
+	 */
+	public int readCoalesceMaxKeys = 100;
 }
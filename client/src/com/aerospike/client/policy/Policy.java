@@ -53,4 +53,33 @@ public class Policy {
 	 * timeout was not exceeded.  Enter zero to skip sleep.
 	 */
 	public int sleepBetweenRetries = 500;
+	
+	/**
+	 * Milliseconds to wait for an asynchronous read response before sending the same read 
+	 * to a prole (replica) node.  The first response received is returned and the other 
+	 * request is cancelled.  A value near the observed p95 read latency limits the extra 
+	 * load to a few percent of reads.  Enter zero (default) to disable hedged reads.
+	 * <p>
+	 * Hedged reads require {@link ClientPolicy#requestProleReplicas}.  Reads are not hedged
+	 * when the prole node is unknown.
+	 */
+	public int hedgeDelay;
+	
+	/**
+	 * Maximum number of keys sent to a node in a single batch command.  Larger batches 
+	 * are split into multiple commands, which bounds request and response buffer sizes.
+	 * Enter zero (default) to send all of a node's keys in one command per namespace.
+	 * Applies to batch commands of both the sync and async clients.
+	 */
+	public int maxBatchKeys;
+	
+	/**
+	 * Maximum number of batch commands that run in parallel against a single node.
+	 * The remaining commands for that node start as earlier ones complete.
+	 * Enter zero (default) to run all batch commands in parallel.  Multi-key writes with 
+	 * zero maxBatchKeys use this as the number of parallel lanes per node instead.
+	 * Only applies to sync {@link com.aerospike.client.AerospikeClient} batch and multi-key 
+	 * calls.  Async batch commands are always sent in parallel.
+	 */
+	public int maxConcurrentBatchCommands;
 }
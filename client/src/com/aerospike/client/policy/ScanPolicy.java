@@ -55,4 +55,33 @@ public final class ScanPolicy extends Policy {
 	 * Terminate scan if cluster in fluctuating state.
 	 */
 	public boolean failOnClusterChange;
+	
+	/**
+	 * Number of received records that a scan publisher queues for a slow subscriber before 
+	 * node commands stop reading from their sockets.  Reading resumes when the queue falls 
+	 * below half this size.  Paused commands still count against the policy timeout, so 
+	 * publisher scans normally use no timeout.
+	 * <p>
+	 * Also bounds the records queued for {@link #callbackThreads}.
+	 */
+	public int recordQueueSize = 5000;
+	
+	/**
+	 * Number of threads that run the scan callback.  Node commands parse records on their
+	 * socket threads and hand them to callback threads through bounded queues, so callback 
+	 * work no longer stalls socket reads and can use more than one core per node.
+	 * Callback threads are created for each scan and are not taken from the client thread pool.
+	 * <p>
+	 * Default (0) runs the callback on each node's socket thread.
+	 */
+	public int callbackThreads;
+	
+	/**
+	 * Deliver each node's records to the callback in the order they were received.  
+	 * Each node is then served by a single callback thread.  If false, records from any 
+	 * node are processed by any callback thread in parallel.
+	 * <p>
+	 * Only used when callbackThreads is greater than zero.  Default is true.
+	 */
+	public boolean callbackOrdered = true;
 }
@@ -139,7 +139,9 @@ public abstract class QueryExecutor {
 		}
 
 		public void run() {
-			thread = Thread.currentThread();		
+			synchronized (this) {
+				thread = Thread.currentThread();
+			}
 
 			try {
 				if (command.isValid()) {
@@ -150,6 +152,7 @@ public abstract class QueryExecutor {
 				// Terminate other query threads.
 				stopThreads(e);
 			}			
+			detach();
 			complete = true;
 			
 		   	if (exception == null) {
@@ -160,10 +163,19 @@ public abstract class QueryExecutor {
 		public void stop() {
 			command.stop();
 			
-			if (thread != null) {
-				thread.interrupt();
+			synchronized (this) {
+				if (thread != null) {
+					thread.interrupt();
+				}
 			}
 		}
+		
+		private synchronized void detach() {
+			// Release pooled thread so a late stop() can not interrupt its next task.
+			// Clear any interrupt that was meant for this command.
+			thread = null;
+			Thread.interrupted();
+		}
 	}
 	
 	protected abstract QueryCommand createCommand(Node node);
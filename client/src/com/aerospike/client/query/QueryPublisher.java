@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.query;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Log;
+import com.aerospike.client.cluster.Cluster;
+import com.aerospike.client.listener.RecordPublisher;
+import com.aerospike.client.listener.RecordSubscriber;
+import com.aerospike.client.listener.RecordSubscription;
+import com.aerospike.client.policy.QueryPolicy;
+
+/**
+ * Query publisher that pulls records from the query's record set only as fast as the
+ * subscriber requests them.  Node threads block when the record set queue is full, which
+ * stops socket reads until the subscriber catches up.  Records are delivered from a
+ * cluster thread pool thread.
+ */
+public final class QueryPublisher implements RecordPublisher, RecordSubscription, Runnable {
+	private final Cluster cluster;
+	private final QueryPolicy policy;
+	private final Statement statement;
+	private final AtomicBoolean subscribed = new AtomicBoolean();
+	private final AtomicLong requested = new AtomicLong();
+	private final AtomicInteger wip = new AtomicInteger();
+	private RecordSubscriber subscriber;
+	private RecordSet recordSet;
+	private volatile AerospikeException exception;
+	private volatile boolean cancelled;
+	private boolean terminated;
+	
+	public QueryPublisher(Cluster cluster, QueryPolicy policy, Statement statement) {
+		this.cluster = cluster;
+		this.policy = policy;
+		this.statement = statement;
+	}
+
+	public void subscribe(RecordSubscriber subscriber) {
+		if (! subscribed.compareAndSet(false, true)) {
+			subscriber.onSubscribe(new EmptySubscription());
+			subscriber.onError(new AerospikeException("Query publisher supports only one subscriber"));
+			return;
+		}
+		
+		try {
+			QueryRecordExecutor executor = new QueryRecordExecutor(cluster, policy, statement);
+			executor.execute();
+			recordSet = executor.getRecordSet();
+		}
+		catch (AerospikeException ae) {
+			subscriber.onSubscribe(new EmptySubscription());
+			subscriber.onError(ae);
+			return;
+		}
+		this.subscriber = subscriber;
+		subscriber.onSubscribe(this);
+	}
+
+	public void request(long n) {
+		if (n <= 0) {
+			exception = new AerospikeException("Query subscription request must be positive: " + n);
+			schedule();
+			return;
+		}
+		
+		while (true) {
+			long current = requested.get();
+			
+			if (current == Long.MAX_VALUE) {
+				break;
+			}
+			
+			long next = current + n;
+			
+			if (next < 0) {
+				next = Long.MAX_VALUE;
+			}
+
+			if (requested.compareAndSet(current, next)) {
+				break;
+			}
+		}
+		schedule();
+	}
+
+	public void cancel() {
+		cancelled = true;
+		
+		// Wake up pull thread and producer threads.
+		recordSet.close();
+	}
+	
+	private void schedule() {
+		// Only one pull task runs at a time.  A running task picks up new demand.
+		if (wip.getAndIncrement() == 0) {
+			cluster.getThreadPool().execute(this);
+		}
+	}
+
+	public void run() {
+		int missed = 1;
+		
+		do {
+			if (! terminated) {
+				try {
+					pull();
+				}
+				catch (AerospikeException ae) {
+					terminate();
+					
+					if (! cancelled) {
+						subscriber.onError(ae);
+					}
+				}
+				catch (RuntimeException re) {
+					// Subscriber violated the contract.  Treat as cancel.
+					if (Log.warnEnabled()) {
+						Log.warn("Query subscriber failed: " + re.getMessage());
+					}
+					cancelled = true;
+					terminate();
+				}
+			}
+			missed = wip.addAndGet(-missed);
+		} while (missed != 0);
+	}
+	
+	private void pull() throws AerospikeException {
+		if (cancelled) {
+			terminate();
+			return;
+		}
+		
+		if (exception != null) {
+			terminate();
+			subscriber.onError(exception);
+			return;
+		}
+
+		long limit = requested.get();
+		long count = 0;
+		
+		while (count != limit) {
+			// Block until the next record arrives from a node thread.
+			if (! recordSet.next()) {
+				terminated = true;
+				
+				if (! cancelled) {
+					subscriber.onComplete();
+				}
+				return;
+			}
+			
+			if (cancelled) {
+				terminate();
+				return;
+			}
+			subscriber.onNext(new KeyRecord(recordSet.getKey(), recordSet.getRecord()));
+			count++;
+		}
+		
+		if (limit != Long.MAX_VALUE) {
+			requested.addAndGet(-count);
+		}
+	}
+	
+	private void terminate() {
+		terminated = true;
+		recordSet.close();
+	}
+	
+	private static final class EmptySubscription implements RecordSubscription {
+		public void request(long n) {
+		}
+
+		public void cancel() {
+		}
+	}
+}
@@ -77,10 +77,13 @@ public final class RecordSet {
 	}
 	
 	/**
-	 * Cancel query.
+	 * Cancel query.  Queued records are discarded, so producer threads blocked 
+	 * on a full queue can exit and a consumer blocked in next() returns.
 	 */
 	public final void close() {
 		valid = false;
+		queue.clear();
+		queue.offer(END);
 	}
 	
 	//-------------------------------------------------------
@@ -22,6 +22,7 @@
 package com.aerospike.client.query;
 
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 
 import com.aerospike.client.AerospikeException;
@@ -35,7 +36,7 @@ public final class ServerExecutor {
 	
 	private final ServerThread[] threads;
 	private volatile Exception exception;
-	private boolean completed;
+	private final CountDownLatch completed = new CountDownLatch(1);
 	
 	public ServerExecutor(
 		Cluster cluster,
@@ -112,19 +113,28 @@ public final class ServerExecutor {
 		notifyCompleted();
     }
 
-	private synchronized void waitTillComplete() {
-		while (! completed) {
+	private void waitTillComplete() {
+		boolean interrupted = false;
+		
+		while (true) {
 			try {
-				super.wait();
+				completed.await();
+				break;
 			}
 			catch (InterruptedException ie) {
+				// Caller was interrupted.  Stop node commands, which releases the latch.
+				interrupted = true;
+				stopThreads(new AerospikeException.Cancelled(ie));
 			}
 		}
+		
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
 	}
 	
-	private synchronized void notifyCompleted() {
-		completed = true;
-		super.notify();
+	private void notifyCompleted() {
+		completed.countDown();
 	}
 
 	private final class ServerThread implements Runnable {
@@ -137,7 +147,9 @@ public final class ServerExecutor {
 		}
 		
 		public void run() {
-			thread = Thread.currentThread();
+			synchronized (this) {
+				thread = Thread.currentThread();
+			}
 
 			try {
 				if (command.isValid()) {
@@ -148,6 +160,7 @@ public final class ServerExecutor {
 				// Terminate other threads.
 				stopThreads(e);
 			}
+			detach();
 			complete = true;
 			
 		   	if (exception == null) {
@@ -158,9 +171,18 @@ public final class ServerExecutor {
 		public void stop() {
 			command.stop();
 			
-			if (thread != null) {
-				thread.interrupt();
+			synchronized (this) {
+				if (thread != null) {
+					thread.interrupt();
+				}
 			}
 		}
+		
+		private synchronized void detach() {
+			// Release pooled thread so a late stop() can not interrupt its next task.
+			// Clear any interrupt that was meant for this command.
+			thread = null;
+			Thread.interrupted();
+		}
 	}
 }
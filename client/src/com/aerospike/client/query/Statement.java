@@ -92,14 +92,50 @@ public final class Statement {
 	 * @param packageName			server package where user defined function resides
 	 * @param functionName			aggregation function name
 	 * @param functionArgs			arguments to pass to function name, if any
+	 * @param returnData			whether the server should return function results to the client
 	 */
-	void setAggregateFunction(String packageName, String functionName, Value[] functionArgs, boolean returnData) {
+	public void setAggregateFunction(String packageName, String functionName, Value[] functionArgs, boolean returnData) {
 		this.packageName = packageName;
 		this.functionName = functionName;
 		this.functionArgs = functionArgs;
 		this.returnData = returnData;
 	}
 	
+	/**
+	 * Return query namespace.
+	 */
+	public String getNamespace() {
+		return namespace;
+	}
+
+	/**
+	 * Return optional query set name.
+	 */
+	public String getSetName() {
+		return setName;
+	}
+
+	/**
+	 * Return optional query index name.
+	 */
+	public String getIndexName() {
+		return indexName;
+	}
+
+	/**
+	 * Return bin names to retrieve, or null for all bins.
+	 */
+	public String[] getBinNames() {
+		return binNames;
+	}
+
+	/**
+	 * Return whether function results are returned to the client.
+	 */
+	public boolean isReturnData() {
+		return returnData;
+	}
+
 	/**
 	 * Return if full namespace/set scan is specified.
 	 */
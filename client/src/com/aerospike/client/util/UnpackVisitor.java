@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright 2012-2014 by Aerospike.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ ******************************************************************************/
+package com.aerospike.client.util;
+
+/**
+ * Callback interface for decoding MessagePack list and map particles without building 
+ * object trees.  Values are reported in the order they appear.  List and map contents 
+ * are bracketed by begin/end calls.  Map entries are reported as key followed by value.
+ * <p>
+ * String and blob callbacks reference the underlying receive buffer directly.  The referenced 
+ * bytes are only valid for the duration of the callback.
+ */
+public interface UnpackVisitor {
+	/**
+	 * Null value.
+	 */
+	public void visitNull();
+
+	/**
+	 * Boolean value.
+	 */
+	public void visitBoolean(boolean value);
+
+	/**
+	 * Integer value.
+	 */
+	public void visitLong(long value);
+
+	/**
+	 * Float or double value.
+	 */
+	public void visitDouble(double value);
+
+	/**
+	 * String value in UTF-8 encoding.
+	 * 
+	 * @param buffer		buffer containing UTF-8 bytes
+	 * @param offset		offset of first byte
+	 * @param length		number of bytes
+	 */
+	public void visitString(byte[] buffer, int offset, int length);
+
+	/**
+	 * Byte array or serialized java object value.
+	 * 
+	 * @param type			particle type, see {@link com.aerospike.client.command.ParticleType}
+	 * @param buffer		buffer containing blob bytes
+	 * @param offset		offset of first byte
+	 * @param length		number of bytes
+	 */
+	public void visitBlob(int type, byte[] buffer, int offset, int length);
+
+	/**
+	 * Start of list with the given number of elements.
+	 */
+	public void visitListBegin(int count);
+
+	/**
+	 * End of list.
+	 */
+	public void visitListEnd();
+
+	/**
+	 * Start of map with the given number of entries.
+	 */
+	public void visitMapBegin(int count);
+
+	/**
+	 * End of map.
+	 */
+	public void visitMapEnd();
+}
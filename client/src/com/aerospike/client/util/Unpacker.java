@@ -81,7 +81,11 @@ public abstract class Unpacker<T> {
 		}
 	}
 
-	private T unpackList(int count) throws IOException, ClassNotFoundException {
+	/**
+	 * Unpack list elements after the list header.  Default builds an element list and
+	 * passes it to {@link #getList(List)}.
+	 */
+	protected T unpackList(int count) throws IOException, ClassNotFoundException {
 		ArrayList<T> out = new ArrayList<T>();
 		
 		for (int i = 0; i < count; i++) {
@@ -120,7 +124,11 @@ public abstract class Unpacker<T> {
 		}
 	}
 	
-	private T unpackMap(int count) throws IOException, ClassNotFoundException {
+	/**
+	 * Unpack map entries after the map header.  Default builds an entry map and
+	 * passes it to {@link #getMap(Map)}.
+	 */
+	protected T unpackMap(int count) throws IOException, ClassNotFoundException {
 		HashMap<T,T> out = new HashMap<T,T>();
 
 		for (int i = 0; i < count; i++) {
@@ -136,31 +144,43 @@ public abstract class Unpacker<T> {
 		count--;		
 		T val;
 		
-		switch (type) {
-		case ParticleType.STRING:
-			val = getString(Buffer.utf8ToString(buffer, offset, count));
-			break;
-
-		case ParticleType.JBLOB:
-			ByteArrayInputStream bastream = new ByteArrayInputStream(buffer, offset, count);
-			ObjectInputStream oistream = new ObjectInputStream(bastream);
-			val = getJavaBlob(oistream.readObject());
-			break;
-			
-		default:
-			val = getBlob(Arrays.copyOfRange(buffer, offset, offset + count));
-			break;
+		if (type == ParticleType.STRING) {
+			val = getString(buffer, offset, count);
+		}
+		else {
+			val = getBlob(type, buffer, offset, count);
 		}
 		offset += count;
 		return val;
 	}
+	
+	/**
+	 * Convert UTF-8 string bytes.  Default decodes a String and passes it to 
+	 * {@link #getString(String)}.
+	 */
+	protected T getString(byte[] buffer, int offset, int length) {
+		return getString(Buffer.utf8ToString(buffer, offset, length));
+	}
+	
+	/**
+	 * Convert blob bytes of the given particle type.  Default deserializes java blobs and 
+	 * copies other blobs.
+	 */
+	protected T getBlob(int type, byte[] buffer, int offset, int length) throws IOException, ClassNotFoundException {
+		if (type == ParticleType.JBLOB) {
+			ByteArrayInputStream bastream = new ByteArrayInputStream(buffer, offset, length);
+			ObjectInputStream oistream = new ObjectInputStream(bastream);
+			return getJavaBlob(oistream.readObject());
+		}
+		return getBlob(Arrays.copyOfRange(buffer, offset, offset + length));
+	}
 
-	private T unpackObject() throws IOException, ClassNotFoundException {
+	protected final T unpackObject() throws IOException, ClassNotFoundException {
 		int type = buffer[offset++] & 0xff;
 		
 		switch (type) {
 			case 0xc0: {
-				return null;
+				return getNull();
 			}
 	
 			case 0xc3: {
@@ -288,6 +308,13 @@ public abstract class Unpacker<T> {
 		}
 	}
 	
+	/**
+	 * Convert null value.  Default returns null.
+	 */
+	protected T getNull() {
+		return null;
+	}
+
 	protected abstract T getMap(Map<T,T> value);
 	protected abstract T getList(List<T> value);
 	protected abstract T getJavaBlob(Object value);
@@ -307,6 +334,244 @@ public abstract class Unpacker<T> {
 		return unpacker.unpackMap();
 	}
 
+	/**
+	 * Decode MessagePack particle and report each value to the visitor.  No intermediate
+	 * collection objects are created.
+	 */
+	public static void visit(byte[] buffer, int offset, int length, UnpackVisitor visitor) throws AerospikeException {
+		if (length <= 0) {
+			return;
+		}
+		
+		try {
+			new VisitUnpacker(buffer, offset, length, visitor).unpackObject();
+		}
+		catch (Exception e) {
+    		throw new AerospikeException.Serialize(e);
+		}
+	}
+
+	/**
+	 * Decode MessagePack list particle of integers directly to a primitive array.
+	 */
+	public static long[] unpackLongList(byte[] buffer, int offset, int length) throws AerospikeException {
+		NumberListUnpacker unpacker = new NumberListUnpacker(buffer, offset, length, false);
+		unpacker.unpackList();
+		return (unpacker.longs != null)? unpacker.longs : new long[0];
+	}
+
+	/**
+	 * Decode MessagePack list particle of floating point numbers directly to a primitive array.
+	 * Integer elements are converted to double.
+	 */
+	public static double[] unpackDoubleList(byte[] buffer, int offset, int length) throws AerospikeException {
+		NumberListUnpacker unpacker = new NumberListUnpacker(buffer, offset, length, true);
+		unpacker.unpackList();
+		return (unpacker.doubles != null)? unpacker.doubles : new double[0];
+	}
+
+	/**
+	 * Report values to a visitor instead of building objects.
+	 */
+	private static final class VisitUnpacker extends Unpacker<Object> {
+		private final UnpackVisitor visitor;
+		
+		public VisitUnpacker(byte[] buffer, int offset, int length, UnpackVisitor visitor) {
+			super(buffer, offset, length);
+			this.visitor = visitor;
+		}
+		
+		@Override
+		protected Object unpackList(int count) throws IOException, ClassNotFoundException {
+			visitor.visitListBegin(count);
+			
+			for (int i = 0; i < count; i++) {
+				unpackObject();
+			}
+			visitor.visitListEnd();
+			return null;
+		}
+
+		@Override
+		protected Object unpackMap(int count) throws IOException, ClassNotFoundException {
+			visitor.visitMapBegin(count);
+			
+			for (int i = 0; i < count; i++) {
+				unpackObject();
+				unpackObject();
+			}
+			visitor.visitMapEnd();
+			return null;
+		}
+
+		@Override
+		protected Object getString(byte[] buffer, int offset, int length) {
+			visitor.visitString(buffer, offset, length);
+			return null;
+		}
+
+		@Override
+		protected Object getBlob(int type, byte[] buffer, int offset, int length) {
+			visitor.visitBlob(type, buffer, offset, length);
+			return null;
+		}
+
+		@Override
+		protected Object getNull() {
+			visitor.visitNull();
+			return null;
+		}
+
+		@Override
+		protected Object getLong(long value) {
+			visitor.visitLong(value);
+			return null;
+		}
+		
+		@Override
+		protected Object getDouble(double value) {
+			visitor.visitDouble(value);
+			return null;
+		}
+
+		@Override
+		protected Object getBoolean(boolean value) {
+			visitor.visitBoolean(value);
+			return null;
+		}
+
+		// Not used, because the overrides above never build objects.
+		@Override
+		protected Object getMap(Map<Object,Object> value) {
+			return null;
+		}
+
+		@Override
+		protected Object getList(List<Object> value) {
+			return null;
+		}
+
+		@Override
+		protected Object getJavaBlob(Object value) {
+			return null;
+		}
+
+		@Override
+		protected Object getBlob(byte[] value) {
+			return null;
+		}
+
+		@Override
+		protected Object getString(String value) {
+			return null;
+		}
+	}
+
+	/**
+	 * Store list of numbers directly in a primitive array.  Other element types are rejected.
+	 */
+	private static final class NumberListUnpacker extends Unpacker<Object> {
+		private final boolean toDouble;
+		private long[] longs;
+		private double[] doubles;
+		private int index;
+		
+		public NumberListUnpacker(byte[] buffer, int offset, int length, boolean toDouble) {
+			super(buffer, offset, length);
+			this.toDouble = toDouble;
+		}
+		
+		@Override
+		protected Object unpackList(int count) throws IOException, ClassNotFoundException {
+			if (longs != null || doubles != null) {
+				throw new IOException("List element is not a number: list");
+			}
+			
+			if (toDouble) {
+				doubles = new double[count];
+			}
+			else {
+				longs = new long[count];
+			}
+			
+			for (int i = 0; i < count; i++) {
+				unpackObject();
+			}
+			return null;
+		}
+
+		@Override
+		protected Object unpackMap(int count) throws IOException {
+			throw new IOException("List element is not a number: map");
+		}
+
+		@Override
+		protected Object getBlob(int type, byte[] buffer, int offset, int length) throws IOException {
+			throw new IOException("List element is not a number: " + type);
+		}
+
+		@Override
+		protected Object getLong(long value) {
+			if (toDouble) {
+				doubles[index++] = value;
+			}
+			else {
+				longs[index++] = value;
+			}
+			return null;
+		}
+		
+		@Override
+		protected Object getDouble(double value) {
+			if (! toDouble) {
+				throw new IllegalArgumentException("List element is not an integer: " + value);
+			}
+			doubles[index++] = value;
+			return null;
+		}
+
+		@Override
+		protected Object getNull() {
+			throw new IllegalArgumentException("List element is not a number: null");
+		}
+
+		@Override
+		protected Object getBoolean(boolean value) {
+			throw new IllegalArgumentException("List element is not a number: " + value);
+		}
+
+		@Override
+		protected Object getString(byte[] buffer, int offset, int length) {
+			throw new IllegalArgumentException("List element is not a number: string");
+		}
+
+		// Not used, because the overrides above never build objects.
+		@Override
+		protected Object getMap(Map<Object,Object> value) {
+			return null;
+		}
+
+		@Override
+		protected Object getList(List<Object> value) {
+			return null;
+		}
+
+		@Override
+		protected Object getJavaBlob(Object value) {
+			return null;
+		}
+
+		@Override
+		protected Object getBlob(byte[] value) {
+			return null;
+		}
+
+		@Override
+		protected Object getString(String value) {
+			return null;
+		}
+	}
+
 	private static final class ObjectUnpacker extends Unpacker<Object> {
 		
 		public ObjectUnpacker(byte[] buffer, int offset, int length) {